@@ -0,0 +1,96 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of bulk save or delete: number of successful writes, failed
+ * entities with their causes, elapsed time and throughput.
+ */
+public class BulkResult<E> {
+    private final long             succeeded;
+    private final List<Failure<E>> failures;
+    private final long             elapsedNanos;
+
+    public BulkResult(long succeeded, List<Failure<E>> failures, long elapsedNanos) {
+        this.succeeded = succeeded;
+        this.failures = Collections.unmodifiableList(failures);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return number of writes which succeeded
+     */
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * @return entities which failed to be written, in order of completion
+     */
+    public List<Failure<E>> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return true if every write succeeded
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    public long getElapsed(TimeUnit unit) {
+        return unit.convert(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return writes per second, successful and failed
+     */
+    public double getThroughput() {
+        if (elapsedNanos <= 0) {
+            return 0;
+        }
+        return (succeeded + failures.size()) * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult [succeeded=" + succeeded + ", failed=" + failures.size() + ", elapsedMs=" + getElapsed(TimeUnit.MILLISECONDS)
+                + ", throughput=" + Math.round(getThroughput()) + "/s]";
+    }
+
+    /** Entity which was not written and the reason. */
+    public static class Failure<E> {
+        private final E         entity;
+        private final Throwable cause;
+
+        public Failure(E entity, Throwable cause) {
+            this.entity = entity;
+            this.cause = cause;
+        }
+
+        public E getEntity() {
+            return entity;
+        }
+
+        public Throwable getCause() {
+            return cause;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Executes one write per entity keeping at most maxInFlight writes
+ * outstanding. The producing thread blocks on the permits, so entities are
+ * pulled from the Iterable no faster than Cassandra completes the writes.
+ */
+public class BulkWriter {
+
+    private BulkWriter() {
+    }
+
+    /**
+     * @param session to execute statements
+     * @param entities source of entities, consumed lazily
+     * @param maxInFlight max number of outstanding writes
+     * @param statementOf builds the write statement for an entity
+     * @return counts, failures and throughput once all writes completed
+     */
+    public static <E> BulkResult<E> write(Session session, Iterable<E> entities, int maxInFlight, Function<E, Statement> statementOf) {
+        final Semaphore permits = new Semaphore(maxInFlight);
+        final AtomicLong succeeded = new AtomicLong();
+        final List<BulkResult.Failure<E>> failures = Collections.synchronizedList(new ArrayList<BulkResult.Failure<E>>());
+        long start = System.nanoTime();
+
+        try {
+            for (final E entity : entities) {
+                permits.acquire();
+                ResultSetFuture future;
+                try {
+                    future = session.executeAsync(statementOf.apply(entity));
+                } catch (RuntimeException e) {
+                    // not submitted, e.g. bad entity or closed session
+                    permits.release();
+                    failures.add(new BulkResult.Failure<E>(entity, e));
+                    continue;
+                }
+
+                Futures.addCallback(future, new FutureCallback<ResultSet>() {
+                    public void onSuccess(ResultSet rs) {
+                        if (rs.wasApplied()) {
+                            succeeded.incrementAndGet();
+                        } else {
+                            failures.add(new BulkResult.Failure<E>(entity, new IllegalStateException("Conditional write was not applied")));
+                        }
+                        permits.release();
+                    }
+
+                    public void onFailure(Throwable t) {
+                        failures.add(new BulkResult.Failure<E>(entity, t));
+                        permits.release();
+                    }
+                }, MoreExecutors.directExecutor());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Bulk write interrupted", e);
+        }
+
+        // wait for outstanding writes
+        permits.acquireUninterruptibly(maxInFlight);
+        permits.release(maxInFlight);
+
+        List<BulkResult.Failure<E>> result;
+        synchronized (failures) {
+            result = new ArrayList<BulkResult.Failure<E>>(failures);
+        }
+        return new BulkResult<E>(succeeded.get(), result, System.nanoTime() - start);
+    }
+}
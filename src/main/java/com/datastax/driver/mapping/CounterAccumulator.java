@@ -0,0 +1,213 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.mapping.builder.MappingBuilder;
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.option.CounterOptions;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Sums counter increments of one entity class per (primary key, property)
+ * in memory and writes the sums periodically in COUNTER batches grouped by
+ * partition.
+ * 
+ * Adding is lock-free: each cell is an AtomicLong updated with CAS. A flush
+ * retires a cell by swapping its value with the DEAD marker and removing it
+ * from the map; an add which observes DEAD removes the retired cell and
+ * retries on a fresh one, so no delta is lost between a flush and an add.
+ * 
+ * Deltas of a failed write are added back. Counter writes are not
+ * idempotent: a write which timed out but was applied is counted twice.
+ */
+public class CounterAccumulator {
+    private static final Logger log  = Logger.getLogger(CounterAccumulator.class.getName());
+    private static final long   DEAD = Long.MIN_VALUE;
+
+    private final MappingSession                  m;
+    private final Class<?>                        clazz;
+    private final CounterOptions                  options;
+    private final ConcurrentMap<Cell, AtomicLong> cells = new ConcurrentHashMap<Cell, AtomicLong>();
+    private final ScheduledFuture<?>              task;
+
+    CounterAccumulator(MappingSession m, Class<?> clazz, CounterOptions options, ScheduledExecutorService scheduler) {
+        this.m = m;
+        this.clazz = clazz;
+        this.options = options;
+        this.task = scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                try {
+                    flush();
+                } catch (RuntimeException e) {
+                    log.log(Level.WARNING, "Counter flush of " + CounterAccumulator.this.clazz.getName() + " failed", e);
+                }
+            }
+        }, options.getFlushIntervalMillis(), options.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Add delta to the counter of the row.
+     * 
+     * @param pkValues primary key values of the row
+     * @param propertyName COUNTER property
+     * @param delta value to add, may be negative
+     */
+    public void add(List<Object> pkValues, String propertyName, long delta) {
+        add(new Cell(pkValues, propertyName), delta);
+    }
+
+    private void add(Cell cell, long delta) {
+        while (true) {
+            AtomicLong sum = cells.get(cell);
+            if (sum == null) {
+                sum = cells.putIfAbsent(cell, new AtomicLong(delta));
+                if (sum == null) {
+                    return;
+                }
+            }
+            long current = sum.get();
+            if (current == DEAD) {
+                cells.remove(cell, sum);
+                continue;
+            }
+            if (sum.compareAndSet(current, current + delta)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return number of counters with pending deltas
+     */
+    public int size() {
+        return cells.size();
+    }
+
+    /**
+     * Write accumulated deltas and wait for the writes to complete.
+     * 
+     * @return number of counters written
+     */
+    public synchronized int flush() {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        int partitionSize = entityMetadata.getPartitionKeyColumns().size();
+        m.maybeSync(clazz);
+
+        List<PartitionBatcher.Entry> entries = new ArrayList<PartitionBatcher.Entry>();
+        Map<Statement, Retired> sources = new IdentityHashMap<Statement, Retired>();
+        for (Map.Entry<Cell, AtomicLong> e : cells.entrySet()) {
+            long delta = e.getValue().getAndSet(DEAD);
+            cells.remove(e.getKey(), e.getValue());
+            if (delta == 0 || delta == DEAD) {
+                continue;
+            }
+            Cell cell = e.getKey();
+            BoundStatement bs = MappingBuilder.prepareIncrement(cell.pkValues, entityMetadata, cell.propertyName, delta, options.getWriteOptions(), m.keyspace, m.session);
+            List<Object> partition = new ArrayList<Object>(cell.pkValues.subList(0, partitionSize));
+            entries.add(new PartitionBatcher.Entry(bs, partition, PartitionBatcher.estimateSize(bs)));
+            sources.put(bs, new Retired(cell, delta));
+        }
+
+        List<Statement> statements = PartitionBatcher.split(entries, BatchStatement.Type.COUNTER, options.getMaxBatchStatements(), -1);
+        List<ResultSetFuture> futures = new ArrayList<ResultSetFuture>(statements.size());
+        for (Statement stmt : statements) {
+            futures.add(m.session.executeAsync(stmt));
+        }
+
+        int written = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            Statement stmt = statements.get(i);
+            List<Statement> parts = new ArrayList<Statement>();
+            if (stmt instanceof BatchStatement) {
+                parts.addAll(((BatchStatement) stmt).getStatements());
+            } else {
+                parts.add(stmt);
+            }
+            try {
+                Uninterruptibles.getUninterruptibly(futures.get(i));
+                written += parts.size();
+            } catch (Exception e) {
+                log.log(Level.WARNING, "Counter flush of " + clazz.getName() + " failed, " + parts.size() + " deltas returned", e);
+                for (Statement part : parts) {
+                    Retired retired = sources.get(part);
+                    add(retired.cell, retired.delta);
+                }
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Stop periodic flushes and write accumulated deltas.
+     */
+    public void close() {
+        task.cancel(false);
+        flush();
+    }
+
+    private static class Cell {
+        final List<Object> pkValues;
+        final String       propertyName;
+        final int          hash;
+
+        Cell(List<Object> pkValues, String propertyName) {
+            this.pkValues = pkValues;
+            this.propertyName = propertyName;
+            this.hash = 31 * pkValues.hashCode() + propertyName.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Cell)) {
+                return false;
+            }
+            Cell other = (Cell) obj;
+            return propertyName.equals(other.propertyName) && pkValues.equals(other.pkValues);
+        }
+    }
+
+    private static class Retired {
+        final Cell cell;
+        final long delta;
+
+        Retired(Cell cell, long delta) {
+            this.cell = cell;
+            this.delta = delta;
+        }
+    }
+}
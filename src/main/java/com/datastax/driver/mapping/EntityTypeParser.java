@@ -41,6 +41,8 @@ import com.datastax.driver.mapping.annotation.Static;
 import com.datastax.driver.mapping.annotation.TableProperties;
 import com.datastax.driver.mapping.annotation.TableProperty;
 import com.datastax.driver.mapping.annotation.Ttl;
+import com.datastax.driver.mapping.annotation.Versioning;
+import com.datastax.driver.mapping.annotation.ZeroCopy;
 import com.datastax.driver.mapping.meta.EntityFieldMetaData;
 import com.datastax.driver.mapping.meta.EntityTypeMetadata;
 import com.datastax.driver.mapping.meta.PrimaryKeyMetadata;
@@ -52,7 +54,8 @@ import com.google.common.primitives.Primitives;
  */
 public class EntityTypeParser {
     private static Map<Class<?>, DataType.Name>            javaTypeToDataType = new HashMap<Class<?>, DataType.Name>();
-    private static final Map<Class<?>, EntityTypeMetadata> entityData         = new HashMap<Class<?>, EntityTypeMetadata>();
+    // metadata is held by the entity class itself and unloaded with it
+    private static volatile ClassValue<EntityTypeMetadata> entityData         = newRegistry();
 
     static {
         // Mapping java types to DATASTAX driver types
@@ -79,6 +82,15 @@ public class EntityTypeParser {
         javaTypeToDataType.put(Enum.class, DataType.Name.VARCHAR);
     }
 
+    private static ClassValue<EntityTypeMetadata> newRegistry() {
+        return new ClassValue<EntityTypeMetadata>() {
+            @Override
+            protected EntityTypeMetadata computeValue(Class<?> clazz) {
+                return parseEntityClass(clazz);
+            }
+        };
+    }
+
     /**
      * to override default java to datastax type mapping
      * 
@@ -103,13 +115,15 @@ public class EntityTypeParser {
      */
     public static <T> void remove(Class<T> clazz) {
         entityData.remove(clazz);
+        EntityTypeMetadata.invalidateSync();
     }
 
     /**
      * Remove entity metadata from the cache.
      */
     public static <T> void removeAll() {
-        entityData.clear();
+        entityData = newRegistry();
+        EntityTypeMetadata.invalidateSync();
     }
 
     /**
@@ -118,12 +132,7 @@ public class EntityTypeParser {
      * not be annotated as @Transient
      */
     public static <T> EntityTypeMetadata getEntityMetadata(Class<T> clazz) {
-        EntityTypeMetadata edata = entityData.get(clazz);
-        if (edata == null) {
-            edata = parseEntityClass(clazz);
-            entityData.put(clazz, edata);
-        }
-        return edata;
+        return entityData.get(clazz);
     }
 
     /**
@@ -133,6 +142,10 @@ public class EntityTypeParser {
     private static <T> EntityTypeMetadata parseEntityClass(Class<T> clazz) {
         EntityTypeMetadata result = parseEntityLevelMetadata(clazz);
         parsePropertyLevelMetadata(result.getEntityClass(), result, null, false);
+        if (result.getPrimaryKeyMetadata() != null) {
+            // resolve the key layout while the metadata is still private to this thread
+            result.getPkColumns();
+        }
         return result;
     }
 
@@ -179,6 +192,12 @@ public class EntityTypeParser {
         if (annotation instanceof Ttl) {
             result.setTtl(((Ttl) annotation).value());
         }
+
+        // parse versioning strategy
+        annotation = clazz.getAnnotation(Versioning.class);
+        if (annotation instanceof Versioning) {
+            result.setVersionStrategy(((Versioning) annotation).value());
+        }
         return result;
     }
 
@@ -246,6 +265,10 @@ public class EntityTypeParser {
                         if (f.getAnnotation(GeneratedValue.class) != null) {
                             fd.setAutoGenerate(true);
                         }
+
+                        if (f.getType() == ByteBuffer.class && (f.getAnnotation(ZeroCopy.class) != null || result.getEntityClass().getAnnotation(ZeroCopy.class) != null)) {
+                            fd.setZeroCopy(true);
+                        }
                         result.addField(fd);
                         break; // exit inner loop on filed's methods and go to
                                // the next field
@@ -305,7 +328,7 @@ public class EntityTypeParser {
         if (columnA instanceof Column) {
             String typedef = ((Column) columnA).columnDefinition();
             if (typedef != null && typedef.length() > 0) {
-                DataType.Name dt = DataType.Name.valueOf(typedef.toUpperCase());
+                DataType.Name dt = DataType.Name.valueOf(typedef.toUpperCase(Locale.ROOT));
                 if (dt != null) {
                     dataType = dt;
                 }
@@ -365,8 +388,8 @@ public class EntityTypeParser {
 
     /** check if the method is getter method for the property */
     private static boolean isGetterFor(Method method, String property) {
-        String name = method.getName().toLowerCase();
-        if (!(name.equals("get" + property.toLowerCase()) || name.equals("is" + property.toLowerCase())))
+        String name = method.getName().toLowerCase(Locale.ROOT);
+        if (!(name.equals("get" + property.toLowerCase(Locale.ROOT)) || name.equals("is" + property.toLowerCase(Locale.ROOT))))
             return false;
         if (method.getParameterTypes().length != 0)
             return false;
@@ -377,7 +400,7 @@ public class EntityTypeParser {
 
     /** check if the method is setter method for the property */
     private static boolean isSetterFor(Method method, Field field) {
-        if (!method.getName().toLowerCase().equals("set" + field.getName().toLowerCase()))
+        if (!method.getName().toLowerCase(Locale.ROOT).equals("set" + field.getName().toLowerCase(Locale.ROOT)))
             return false;
         if (method.getParameterTypes().length != 1)
             return false;
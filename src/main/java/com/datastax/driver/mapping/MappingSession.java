@@ -17,29 +17,61 @@ package com.datastax.driver.mapping;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.PreparedStatement;
-import com.datastax.driver.core.RegularStatement;
 import com.datastax.driver.core.ResultSet;
 import com.datastax.driver.core.ResultSetFuture;
 import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
 import com.datastax.driver.core.Statement;
-import com.datastax.driver.core.querybuilder.Batch;
+import com.datastax.driver.core.policies.RetryPolicy;
 import com.datastax.driver.core.querybuilder.BuiltStatement;
-import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.mapping.builder.MappingBuilder;
+import com.datastax.driver.mapping.meta.EntityFieldMetaData;
 import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.meta.PropertyRef;
 import com.datastax.driver.mapping.option.BatchOptions;
+import com.datastax.driver.mapping.option.BulkOptions;
+import com.datastax.driver.mapping.option.CounterOptions;
+import com.datastax.driver.mapping.option.MicroBatchOptions;
+import com.datastax.driver.mapping.option.Parallelism;
 import com.datastax.driver.mapping.option.ReadOptions;
+import com.datastax.driver.mapping.option.ScanOptions;
+import com.datastax.driver.mapping.option.SliceOptions;
+import com.datastax.driver.mapping.option.WriteBehindOptions;
 import com.datastax.driver.mapping.option.WriteOptions;
+import com.datastax.driver.mapping.scan.TokenRangeScanner;
 import com.datastax.driver.mapping.schemasync.SchemaSync;
 import com.datastax.driver.mapping.schemasync.SyncOptionTypes;
 import com.datastax.driver.mapping.schemasync.SyncOptions;
+import com.google.common.base.Function;
 import com.google.common.cache.Cache;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 /**
  * Object Mapper API to work with entities to be persisted in Cassandra. This is
@@ -57,9 +89,27 @@ import com.google.common.cache.Cache;
 public class MappingSession {
     protected static final Logger log = Logger.getLogger(MappingSession.class.getName());
 
+    // one daemon thread shared by all sessions runs background schema sync
+    private static final ExecutorService syncExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "mapping-schema-sync");
+            t.setDaemon(true);
+            return t;
+        }
+    });
+
     protected Session             session;
     protected String              keyspace;
     protected SyncOptions 		  syncOptions = SyncOptions.withOptions();;
+    protected boolean             singleFlight;
+    protected final SingleFlight  inflight = new SingleFlight();
+    protected final Map<Class<?>, WriteBehindBuffer> writeBehind = new ConcurrentHashMap<Class<?>, WriteBehindBuffer>();
+    protected final Map<Class<?>, CounterAccumulator> counters = new ConcurrentHashMap<Class<?>, CounterAccumulator>();
+    protected ScheduledExecutorService scheduler;
+    protected volatile MicroBatcher microBatcher;
+    protected final Map<Class<?>, CompletableFuture<Void>> backgroundSync = new ConcurrentHashMap<Class<?>, CompletableFuture<Void>>();
+    protected volatile CompletableFuture<Void> ready = CompletableFuture.completedFuture(null);
+    protected final Map<Class<?>, SyncState> syncStates = new ConcurrentHashMap<Class<?>, SyncState>();
 
     public MappingSession() {}
     
@@ -105,6 +155,84 @@ public class MappingSession {
         	this.syncOptions = options;
         }
     }    
+
+    /**
+     * Constructor which starts synchronizing the entities in the background.
+     * Requests do not wait for DDL: async operations on an entity are chained
+     * onto its sync and sync operations wait only for the entity they use.
+     * 
+     * @param keyspace name
+     * @param session Initialized Datastax Session
+     * @param options SyncOptions, can be null
+     * @param entityClasses entities to synchronize at start
+     */
+    public MappingSession(String keyspace, Session session, SyncOptions options, Class<?>[] entityClasses) {
+        this(keyspace, session, options);
+        syncInBackground(entityClasses);
+    }
+
+    /**
+     * Synchronize the entities in the background with SchemaSync.sync for
+     * many classes. Background syncs of all sessions run one after another
+     * on a shared daemon thread. Entities with DoNotSync option or already
+     * synchronized complete immediately.
+     * 
+     * @param entityClasses entities to synchronize
+     * @return future completed when all given entities are synchronized,
+     *         completed exceptionally if any of them failed
+     */
+    public CompletableFuture<Void> syncInBackground(Class<?>[] entityClasses) {
+        final List<Class<?>> classes = new ArrayList<Class<?>>();
+        final List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+        for (Class<?> clazz : entityClasses) {
+            if (syncOptions.isDoNotSync(clazz) || EntityTypeParser.getEntityMetadata(clazz).isSynced(keyspace)) {
+                continue;
+            }
+            CompletableFuture<Void> f = new CompletableFuture<Void>();
+            backgroundSync.put(clazz, f);
+            classes.add(clazz);
+            futures.add(f);
+        }
+        final CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+        addReady(all);
+        if (classes.isEmpty()) {
+            return all;
+        }
+
+        syncExecutor.execute(new Runnable() {
+            public void run() {
+                RuntimeException failure = null;
+                try {
+                    SchemaSync.sync(keyspace, session, classes.toArray(new Class<?>[classes.size()]), syncOptions);
+                } catch (RuntimeException e) {
+                    log.warning("Background sync of keyspace " + keyspace + " failed: " + e);
+                    failure = e;
+                }
+                for (int i = 0; i < classes.size(); i++) {
+                    if (EntityTypeParser.getEntityMetadata(classes.get(i)).isSynced(keyspace)) {
+                        futures.get(i).complete(null);
+                    } else {
+                        futures.get(i).completeExceptionally(failure != null ? failure : new IllegalStateException("Entity " + classes.get(i).getName() + " is not synchronized"));
+                    }
+                }
+            }
+        });
+        return all;
+    }
+
+    /** ready completes when this and every earlier background sync completed */
+    private synchronized void addReady(CompletableFuture<Void> sync) {
+        ready = CompletableFuture.allOf(ready, sync);
+    }
+
+    /**
+     * @return future completed when all entities synchronized in the
+     *         background so far are ready, completed exceptionally if any
+     *         sync failed. Completed if nothing is synchronized in background.
+     */
+    public CompletableFuture<Void> ready() {
+        return ready;
+    }
     
     /**
      * Get Entity by Id(Primary Key)
@@ -127,6 +255,9 @@ public class MappingSession {
      */
     public <T> T get(Class<T> clazz, Object id, ReadOptions options) {
         maybeSync(clazz);
+        if (singleFlight) {
+            return getUninterruptibly(getSingleFlight(clazz, id, options));
+        }
         BoundStatement bs = MappingBuilder.prepareSelect(clazz, id, options, keyspace, session);
         if (bs != null) {
             ResultSet rs = session.execute(bs);
@@ -138,6 +269,293 @@ public class MappingSession {
         return null;
     }
 
+    /**
+     * Asynchronously Get Entity by Id(Primary Key)
+     * 
+     * @param class Entity.class
+     * @param id primary key
+     * @return ListenableFuture of Entity instance or null
+     */
+    public <T> ListenableFuture<T> getAsync(Class<T> clazz, Object id) {
+        return getAsync(clazz, id, null);
+    }
+
+    /**
+     * Asynchronously Get Entity by Id(Primary Key)
+     * 
+     * @param class Entity.class
+     * @param id primary key
+     * @param options ReadOptions
+     * @return ListenableFuture of Entity instance or null
+     */
+    public <T> ListenableFuture<T> getAsync(final Class<T> clazz, final Object id, final ReadOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSync(sync, new Callable<ListenableFuture<T>>() {
+                public ListenableFuture<T> call() throws Exception {
+                    return getAsync(clazz, id, options);
+                }
+            });
+        }
+        maybeSync(clazz);
+        if (singleFlight) {
+            return getSingleFlight(clazz, id, options);
+        }
+        BoundStatement bs = MappingBuilder.prepareSelect(clazz, id, options, keyspace, session);
+        if (bs == null) {
+            return Futures.immediateFuture(null);
+        }
+        return Futures.transform(session.executeAsync(bs), new Function<ResultSet, T>() {
+            public T apply(ResultSet rs) {
+                List<T> all = getFromResultSet(clazz, rs);
+                return all.isEmpty() ? null : all.get(0);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Concurrent reads of the same entity, id and read options share one
+     * in-flight query. Each caller maps the shared row into its own instance.
+     */
+    protected <T> ListenableFuture<T> getSingleFlight(final Class<T> clazz, final Object id, final ReadOptions options) {
+        ConsistencyLevel cl = options == null ? null : options.getConsistencyLevel();
+        RetryPolicy retryPolicy = options == null ? null : options.getRetryPolicy();
+        SingleFlight.Key key = new SingleFlight.Key(keyspace, clazz, id, cl, retryPolicy);
+        ListenableFuture<List<Row>> rows = inflight.fetch(key, new Callable<ResultSetFuture>() {
+            public ResultSetFuture call() throws Exception {
+                BoundStatement bs = MappingBuilder.prepareSelect(clazz, id, options, keyspace, session);
+                return executeAsync(bs);
+            }
+        });
+        return Futures.transform(rows, new Function<List<Row>, T>() {
+            public T apply(List<Row> rows) {
+                if (rows == null || rows.isEmpty()) {
+                    return null;
+                }
+                Row row = rows.get(0);
+                EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
+                return MappingBuilder.getFromRow(clazz, row, emeta, emeta.getFieldsPresentIn(row.getColumnDefinitions()));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Check if the Entity with given Id(Primary Key) exists. Only the primary
+     * key column is selected and no Entity is instantiated.
+     * 
+     * @param class Entity.class
+     * @param id primary key
+     * @return true if the row exists
+     */
+    public <T> boolean exists(Class<T> clazz, Object id) {
+        return exists(clazz, id, null);
+    }
+
+    /**
+     * Check if the Entity with given Id(Primary Key) exists.
+     * 
+     * @param class Entity.class
+     * @param id primary key
+     * @param options ReadOptions
+     * @return true if the row exists
+     */
+    public <T> boolean exists(Class<T> clazz, Object id, ReadOptions options) {
+        maybeSync(clazz);
+        BoundStatement bs = MappingBuilder.prepareExists(clazz, id, options, keyspace, session);
+        return session.execute(bs).one() != null;
+    }
+
+    /**
+     * Asynchronously check if the Entity with given Id(Primary Key) exists.
+     * 
+     * @param class Entity.class
+     * @param id primary key
+     * @return ListenableFuture of true if the row exists
+     */
+    public <T> ListenableFuture<Boolean> existsAsync(Class<T> clazz, Object id) {
+        return existsAsync(clazz, id, null);
+    }
+
+    /**
+     * Asynchronously check if the Entity with given Id(Primary Key) exists.
+     * 
+     * @param class Entity.class
+     * @param id primary key
+     * @param options ReadOptions
+     * @return ListenableFuture of true if the row exists
+     */
+    public <T> ListenableFuture<Boolean> existsAsync(final Class<T> clazz, final Object id, final ReadOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSync(sync, new Callable<ListenableFuture<Boolean>>() {
+                public ListenableFuture<Boolean> call() throws Exception {
+                    return existsAsync(clazz, id, options);
+                }
+            });
+        }
+        maybeSync(clazz);
+        BoundStatement bs = MappingBuilder.prepareExists(clazz, id, options, keyspace, session);
+        return Futures.transform(session.executeAsync(bs), new Function<ResultSet, Boolean>() {
+            public Boolean apply(ResultSet rs) {
+                return rs.one() != null;
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Get current value of the @Version field. Only the version column is
+     * selected and no Entity is instantiated.
+     * 
+     * @param class Entity.class with @Version field
+     * @param id primary key
+     * @return version or null if the row does not exist
+     */
+    public <T> Long getVersion(Class<T> clazz, Object id) {
+        return getVersion(clazz, id, null);
+    }
+
+    /**
+     * Get current value of the @Version field.
+     * 
+     * @param class Entity.class with @Version field
+     * @param id primary key
+     * @param options ReadOptions
+     * @return version or null if the row does not exist
+     */
+    public <T> Long getVersion(Class<T> clazz, Object id, ReadOptions options) {
+        maybeSync(clazz);
+        BoundStatement bs = MappingBuilder.prepareSelectVersion(clazz, id, options, keyspace, session);
+        return VERSION_OF.apply(session.execute(bs));
+    }
+
+    /**
+     * Asynchronously get current value of the @Version field.
+     * 
+     * @param class Entity.class with @Version field
+     * @param id primary key
+     * @return ListenableFuture of version or null if the row does not exist
+     */
+    public <T> ListenableFuture<Long> getVersionAsync(Class<T> clazz, Object id) {
+        return getVersionAsync(clazz, id, null);
+    }
+
+    /**
+     * Asynchronously get current value of the @Version field.
+     * 
+     * @param class Entity.class with @Version field
+     * @param id primary key
+     * @param options ReadOptions
+     * @return ListenableFuture of version or null if the row does not exist
+     */
+    public <T> ListenableFuture<Long> getVersionAsync(final Class<T> clazz, final Object id, final ReadOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSync(sync, new Callable<ListenableFuture<Long>>() {
+                public ListenableFuture<Long> call() throws Exception {
+                    return getVersionAsync(clazz, id, options);
+                }
+            });
+        }
+        maybeSync(clazz);
+        BoundStatement bs = MappingBuilder.prepareSelectVersion(clazz, id, options, keyspace, session);
+        return Futures.transform(session.executeAsync(bs), VERSION_OF, MoreExecutors.directExecutor());
+    }
+
+    private static final Function<ResultSet, Long> VERSION_OF = new Function<ResultSet, Long>() {
+        public Long apply(ResultSet rs) {
+            Row row = rs.one();
+            if (row == null || row.isNull(0)) {
+                return null;
+            }
+            return row.getLong(0);
+        }
+    };
+
+    /**
+     * Get partition level @Static fields without reading clustering rows.
+     * Only partition key and static properties of returned Entity are
+     * populated.
+     * 
+     * @param class Entity.class with @Static fields
+     * @param partitionKey value of partition key column or instance of the
+     *        partition key class for composite partition key
+     * @return Entity or null if the partition does not exist
+     */
+    public <T> T getStatic(Class<T> clazz, Object partitionKey) {
+        return getStatic(clazz, partitionKey, null);
+    }
+
+    /**
+     * Get partition level @Static fields without reading clustering rows.
+     * 
+     * @param class Entity.class with @Static fields
+     * @param partitionKey partition key
+     * @param options ReadOptions
+     * @return Entity or null if the partition does not exist
+     */
+    public <T> T getStatic(Class<T> clazz, Object partitionKey, ReadOptions options) {
+        return getUninterruptibly(getStaticAsync(clazz, partitionKey, options));
+    }
+
+    /**
+     * Asynchronously get partition level @Static fields.
+     * 
+     * @param class Entity.class with @Static fields
+     * @param partitionKey partition key
+     * @param options ReadOptions
+     * @return ListenableFuture of Entity or null if the partition does not exist
+     */
+    public <T> ListenableFuture<T> getStaticAsync(final Class<T> clazz, final Object partitionKey, final ReadOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSync(sync, new Callable<ListenableFuture<T>>() {
+                public ListenableFuture<T> call() throws Exception {
+                    return getStaticAsync(clazz, partitionKey, options);
+                }
+            });
+        }
+        maybeSync(clazz);
+        BoundStatement bs = MappingBuilder.prepareSelectStatic(clazz, partitionKey, options, keyspace, session);
+        return Futures.transform(session.executeAsync(bs), new Function<ResultSet, T>() {
+            public T apply(ResultSet rs) {
+                Row row = rs.one();
+                if (row == null) {
+                    return null;
+                }
+                EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
+                return MappingBuilder.getFromRow(clazz, row, emeta, emeta.getFieldsPresentIn(rs.getColumnDefinitions()));
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Get partition level @Static fields for many partitions. Partitions are
+     * queried concurrently, one SELECT DISTINCT per partition.
+     * 
+     * @param class Entity.class with @Static fields
+     * @param partitionKeys partition keys
+     * @param options ReadOptions, can be null
+     * @return Map of partition key to Entity in the order of the keys,
+     *         partitions which do not exist are absent
+     */
+    public <T> Map<Object, T> getStatics(Class<T> clazz, Collection<?> partitionKeys, ReadOptions options) {
+        List<ListenableFuture<T>> futures = new ArrayList<ListenableFuture<T>>(partitionKeys.size());
+        for (Object partitionKey : partitionKeys) {
+            futures.add(getStaticAsync(clazz, partitionKey, options));
+        }
+        List<T> loaded = getUninterruptibly(Futures.allAsList(futures));
+
+        Map<Object, T> result = new LinkedHashMap<Object, T>();
+        Iterator<T> it = loaded.iterator();
+        for (Object partitionKey : partitionKeys) {
+            T entity = it.next();
+            if (entity != null) {
+                result.put(partitionKey, entity);
+            }
+        }
+        return result;
+    }
+
     /**
      * Get Collection of Entities by custom Query Statement
      * 
@@ -151,6 +569,21 @@ public class MappingSession {
         return getFromResultSet(clazz, session.execute(query));
     }
 
+    /**
+     * Get Collection of Entities by custom Query Statement. The rows are
+     * mapped in parallel.
+     * 
+     * @param class Entity.class
+     * @param query Statement
+     * @param parallelism pool and threshold for parallel mapping
+     * @return List<Entity> if nothing is retrieved empty List<Entity> is
+     *         returned
+     */
+    public <T> List<T> getByQuery(Class<T> clazz, Statement query, Parallelism parallelism) {
+        maybeSync(clazz);
+        return getFromResultSet(clazz, session.execute(query), parallelism);
+    }
+
     /**
      * Get Collection of Entities by custom Query String
      * 
@@ -164,6 +597,66 @@ public class MappingSession {
         return getFromResultSet(clazz, session.execute(query));
     }
 
+    /**
+     * Get slice of the partition: rows within the clustering range, in the
+     * requested order, limited in number. Typical time-series read
+     * "last N rows of partition P between t1 and t2".
+     * 
+     * @param class Entity.class
+     * @param partitionKey value of partition key column or instance of the
+     *        partition key class for composite partition key
+     * @param slice clustering range, order and limit, null for the whole partition
+     * @return List<Entity>, empty if nothing found
+     */
+    public <T> List<T> getSlice(Class<T> clazz, Object partitionKey, SliceOptions slice) {
+        maybeSync(clazz);
+        BoundStatement bs = MappingBuilder.prepareSlice(clazz, partitionKey, slice, keyspace, session);
+        return getFromResultSet(clazz, session.execute(bs));
+    }
+
+    /**
+     * Asynchronously get slice of the partition.
+     * 
+     * @param class Entity.class
+     * @param partitionKey value of partition key column or instance of the
+     *        partition key class for composite partition key
+     * @param slice clustering range, order and limit, null for the whole partition
+     * @return ListenableFuture of List<Entity>
+     */
+    public <T> ListenableFuture<List<T>> getSliceAsync(final Class<T> clazz, final Object partitionKey, final SliceOptions slice) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSync(sync, new Callable<ListenableFuture<List<T>>>() {
+                public ListenableFuture<List<T>> call() throws Exception {
+                    return getSliceAsync(clazz, partitionKey, slice);
+                }
+            });
+        }
+        maybeSync(clazz);
+        BoundStatement bs = MappingBuilder.prepareSlice(clazz, partitionKey, slice, keyspace, session);
+        return Futures.transform(session.executeAsync(bs), new Function<ResultSet, List<T>>() {
+            public List<T> apply(ResultSet rs) {
+                return getFromResultSet(clazz, rs);
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Scan the whole table. The token ring is split into subranges which are
+     * queried in parallel, rows are mapped and passed to the consumer as they
+     * are paged in. The consumer is called concurrently and must be thread
+     * safe. Provide ScanCheckpoint in options to resume interrupted scan.
+     * 
+     * @param class Entity.class
+     * @param options ScanOptions
+     * @param consumer receives each entity of the table
+     * @return number of scanned rows
+     */
+    public <T> long scan(Class<T> clazz, ScanOptions options, Consumer<T> consumer) {
+        maybeSync(clazz);
+        return new TokenRangeScanner<T>(session, keyspace, clazz, options).scan(consumer);
+    }
+
     /**
      * Convert custom ResultSet into List<Entity>. No Cassandra invocations are
      * performed.
@@ -200,6 +693,32 @@ public class MappingSession {
         return MappingBuilder.getFromRows(clazz, rows);
     }
     
+    /**
+     * Convert custom ResultSet into List<Entity> mapping rows in parallel.
+     * No Cassandra invocations are performed.
+     * 
+     * @param class Entity.class
+     * @param rs ResultSet
+     * @param parallelism pool and threshold for parallel mapping
+     * @return List<Entity> in the order of rows
+     */
+    public <T> List<T> getFromResultSet(Class<T> clazz, ResultSet rs, Parallelism parallelism) {
+        return MappingBuilder.getFromResultSet(clazz, rs, parallelism);
+    }
+
+    /**
+     * Convert Rows of ResultSet into Entity instances mapping rows in parallel.
+     * No Cassandra invocations are performed.
+     * 
+     * @param class Entity.class
+     * @param rows already fetched Rows
+     * @param parallelism pool and threshold for parallel mapping
+     * @return List<Entity> in the order of rows
+     */
+    public <T> List<T> getFromRows(Class<T> clazz, Collection<Row> rows, Parallelism parallelism) {
+        return MappingBuilder.getFromRows(clazz, rows, parallelism);
+    }
+
     /**
      * Delete Entity
      * 
@@ -207,6 +726,7 @@ public class MappingSession {
      */
     public <E> void delete(E entity) {
         maybeSync(entity.getClass());
+        discardWriteBehind(entity);
         BuiltStatement bs = MappingBuilder.buildDelete(entity, keyspace);
         execute(bs);
     }
@@ -216,10 +736,13 @@ public class MappingSession {
      * 
      * @param class Entity.class
      * @param id Primary Key
+     * @throws IllegalArgumentException for entity versioned by
+     *         WRITE_TIMESTAMP, use {@link #delete(Object)} instead
      */
     public <T> void delete(Class<T> clazz, Object id) {
         maybeSync(clazz);
         BuiltStatement bs = MappingBuilder.buildDelete(clazz, id, keyspace);
+        discardWriteBehind(clazz, id);
         execute(bs);
     }
 
@@ -229,8 +752,17 @@ public class MappingSession {
      * @param entity
      * @return ResultSetFuture
      */
-    public <E> ResultSetFuture deleteAsync(E entity) {
+    public <E> ResultSetFuture deleteAsync(final E entity) {
+        CompletableFuture<Void> sync = pendingSync(entity.getClass());
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return deleteAsync(entity);
+                }
+            });
+        }
         maybeSync(entity.getClass());
+        discardWriteBehind(entity);
         BuiltStatement bs = MappingBuilder.buildDelete(entity, keyspace);
         return executeAsync(bs);
     }
@@ -241,12 +773,118 @@ public class MappingSession {
      * @param class Entity.class
      * @param id Primary Key
      */
-    public <T> ResultSetFuture deleteAsync(Class<T> clazz, Object id) {
+    public <T> ResultSetFuture deleteAsync(final Class<T> clazz, final Object id) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return deleteAsync(clazz, id);
+                }
+            });
+        }
         maybeSync(clazz);
         BuiltStatement bs = MappingBuilder.buildDelete(clazz, id, keyspace);
+        discardWriteBehind(clazz, id);
         return executeAsync(bs);
     }
 
+    /**
+     * Delete the whole partition with a single partition tombstone.
+     * 
+     * @param class Entity.class
+     * @param partitionKey value of partition key column or instance of the
+     *        partition key class for composite partition key
+     */
+    public <T> void deletePartition(Class<T> clazz, Object partitionKey) {
+        deletePartition(clazz, partitionKey, null);
+    }
+
+    /**
+     * Delete the whole partition with a single partition tombstone.
+     * 
+     * @param class Entity.class
+     * @param partitionKey value of partition key column or instance of the
+     *        partition key class for composite partition key
+     * @param options consistency level, retry policy and timestamp of the
+     *        tombstone, may be null
+     */
+    public <T> void deletePartition(Class<T> clazz, Object partitionKey, WriteOptions options) {
+        deleteRange(clazz, partitionKey, null, null, options);
+    }
+
+    /**
+     * Asynchronously delete the whole partition.
+     * 
+     * @param class Entity.class
+     * @param partitionKey value of partition key column or instance of the
+     *        partition key class for composite partition key
+     * @param options consistency level, retry policy and timestamp of the
+     *        tombstone, may be null
+     * @return ResultSetFuture
+     */
+    public <T> ResultSetFuture deletePartitionAsync(Class<T> clazz, Object partitionKey, WriteOptions options) {
+        return deleteRangeAsync(clazz, partitionKey, null, null, options);
+    }
+
+    /**
+     * Delete rows of the partition within the clustering range with a single
+     * range tombstone. Bounds are inclusive prefixes of clustering column
+     * values in the primary key order, null leaves the side open.
+     * 
+     * @param class Entity.class
+     * @param partitionKey value of partition key column or instance of the
+     *        partition key class for composite partition key
+     * @param clusteringFrom lower bound or null
+     * @param clusteringTo upper bound or null
+     */
+    public <T> void deleteRange(Class<T> clazz, Object partitionKey, Object[] clusteringFrom, Object[] clusteringTo) {
+        deleteRange(clazz, partitionKey, clusteringFrom, clusteringTo, null);
+    }
+
+    /**
+     * Delete rows of the partition within the clustering range with a single
+     * range tombstone.
+     * 
+     * @param class Entity.class
+     * @param partitionKey value of partition key column or instance of the
+     *        partition key class for composite partition key
+     * @param clusteringFrom lower bound or null
+     * @param clusteringTo upper bound or null
+     * @param options consistency level, retry policy and timestamp of the
+     *        tombstone, may be null
+     */
+    public <T> void deleteRange(Class<T> clazz, Object partitionKey, Object[] clusteringFrom, Object[] clusteringTo, WriteOptions options) {
+        maybeSync(clazz);
+        flushWriteBehind(clazz);
+        execute(MappingBuilder.prepareDeleteRange(clazz, partitionKey, clusteringFrom, clusteringTo, options, keyspace, session));
+    }
+
+    /**
+     * Asynchronously delete rows of the partition within the clustering range.
+     * 
+     * @param class Entity.class
+     * @param partitionKey value of partition key column or instance of the
+     *        partition key class for composite partition key
+     * @param clusteringFrom lower bound or null
+     * @param clusteringTo upper bound or null
+     * @param options consistency level, retry policy and timestamp of the
+     *        tombstone, may be null
+     * @return ResultSetFuture
+     */
+    public <T> ResultSetFuture deleteRangeAsync(final Class<T> clazz, final Object partitionKey, final Object[] clusteringFrom, final Object[] clusteringTo, final WriteOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return deleteRangeAsync(clazz, partitionKey, clusteringFrom, clusteringTo, options);
+                }
+            });
+        }
+        maybeSync(clazz);
+        flushWriteBehind(clazz);
+        return executeAsync(MappingBuilder.prepareDeleteRange(clazz, partitionKey, clusteringFrom, clusteringTo, options, keyspace, session));
+    }
+
     /**
      * Save Entity. If Entity has @Version field, in attempt to save not the
      * latest version null is returned.
@@ -279,12 +917,19 @@ public class MappingSession {
      * @return ResultSetFuture.
      */
     public <E> E save(E entity, WriteOptions options) {
+        if (!writeBehind.isEmpty()) {
+            WriteBehindBuffer buffer = writeBehind.get(entity.getClass());
+            if (buffer != null) {
+                buffer.save(entity, options);
+                return entity;
+            }
+        }
         maybeSync(entity.getClass());
         Statement stmt = MappingBuilder.prepareSave(entity, options, keyspace);
         ResultSet rs = session.execute(stmt);
 
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
-        if (entityMetadata.hasVersion()) {
+        if (entityMetadata.hasConditionalVersion()) {
             Row row = rs.one();
             if (!(row != null && rs.wasApplied())) {
                 return null;
@@ -302,12 +947,451 @@ public class MappingSession {
      * @param options WriteOptions
      * @return ResultSetFuture.
      */
-    public <E> ResultSetFuture saveAsync(E entity, WriteOptions options) {
+    public <E> ResultSetFuture saveAsync(final E entity, final WriteOptions options) {
+        CompletableFuture<Void> sync = pendingSync(entity.getClass());
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return saveAsync(entity, options);
+                }
+            });
+        }
         maybeSync(entity.getClass());
+        discardWriteBehind(entity);
+        MicroBatcher batcher = microBatcher;
+        if (batcher != null) {
+            EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
+            if (!entityMetadata.hasConditionalVersion()) {
+                BoundStatement bs = MappingBuilder.prepareBoundSave(entity, options, keyspace, session);
+                List<Object> partition = new ArrayList<Object>();
+                partition.add(keyspace);
+                partition.add(entityMetadata.getTableName());
+                partition.add(bs.getConsistencyLevel());
+                partition.add(bs.getRetryPolicy());
+                partition.addAll(entityMetadata.getEntityPartitionKeyValues(entity));
+                // a later save of the row replaces the queued one, both write the whole row
+                List<Object> row = entityMetadata.getEntityPKValues(entity);
+                return batcher.add(partition, row.contains(null) ? null : row, bs);
+            }
+        }
         Statement stmt = MappingBuilder.prepareSave(entity, options, keyspace);
         return executeAsync(stmt);
     }
 
+    /**
+     * Asynchronously save Entity and report the outcome.
+     * 
+     * @param entity
+     * @return CompletableFuture of SaveResult
+     */
+    public <E> CompletableFuture<SaveResult<E>> saveWithResult(E entity) {
+        return saveWithResult(entity, null);
+    }
+
+    /**
+     * Asynchronously save Entity and report the outcome. For @Version
+     * entities the result tells if the conditional write was applied and,
+     * if not, carries the current server row mapped from the LWT response.
+     * The in-memory @Version is restored when the write is not applied or
+     * fails.
+     * 
+     * @param entity
+     * @param options WriteOptions
+     * @return CompletableFuture of SaveResult
+     */
+    @SuppressWarnings("unchecked")
+    public <E> CompletableFuture<SaveResult<E>> saveWithResult(final E entity, final WriteOptions options) {
+        final Class<E> clazz = (Class<E>) entity.getClass();
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            final CompletableFuture<SaveResult<E>> chained = new CompletableFuture<SaveResult<E>>();
+            sync.whenComplete(new BiConsumer<Void, Throwable>() {
+                public void accept(Void ignored, Throwable failure) {
+                    try {
+                        saveWithResult(entity, options).whenComplete(new BiConsumer<SaveResult<E>, Throwable>() {
+                            public void accept(SaveResult<E> result, Throwable t) {
+                                if (t != null) {
+                                    chained.completeExceptionally(t);
+                                } else {
+                                    chained.complete(result);
+                                }
+                            }
+                        });
+                    } catch (Throwable t) {
+                        chained.completeExceptionally(t);
+                    }
+                }
+            });
+            return chained;
+        }
+        maybeSync(clazz);
+        discardWriteBehind(entity);
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        final EntityFieldMetaData verField = entityMetadata.hasVersion() ? entityMetadata.getVersionField() : null;
+        final Object oldVersion = verField == null ? null : verField.getValue(entity);
+
+        final CompletableFuture<SaveResult<E>> result = new CompletableFuture<SaveResult<E>>();
+        ResultSetFuture f;
+        try {
+            f = executeAsync(MappingBuilder.prepareSave(entity, options, keyspace));
+        } catch (RuntimeException e) {
+            restoreVersion(entity, verField, oldVersion);
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        Futures.addCallback(f, new FutureCallback<ResultSet>() {
+            public void onSuccess(ResultSet rs) {
+                if (verField == null || rs.wasApplied()) {
+                    result.complete(new SaveResult<E>(true, entity, null));
+                    return;
+                }
+                restoreVersion(entity, verField, oldVersion);
+                Row row = rs.one();
+                E current = row == null ? null : MappingBuilder.getFromRow(clazz, row);
+                result.complete(new SaveResult<E>(false, entity, current));
+            }
+
+            public void onFailure(Throwable t) {
+                restoreVersion(entity, verField, oldVersion);
+                result.completeExceptionally(t);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    /**
+     * Save @Version Entity and resolve conflicts with the merge function.
+     * 
+     * @param entity
+     * @param merge combines the entity with the current row on conflict
+     * @return saved Entity or null if it was not saved within 5 attempts
+     */
+    public <E> E saveOrMerge(E entity, MergeFunction<E> merge) {
+        return saveOrMerge(entity, merge, null, 5);
+    }
+
+    /**
+     * Save @Version Entity and resolve conflicts with the merge function.
+     * When the conditional write is rejected the current row is taken from
+     * the LWT response. A rejected INSERT returns the whole row and no read
+     * is made. A rejected UPDATE returns only the version: the row is read
+     * once, unless the merge function is MergeFunction.VersionOnly, which
+     * gets the response as is. The merged entity gets the current version
+     * and the save is retried.
+     * 
+     * @param entity
+     * @param merge combines the entity with the current row on conflict
+     * @param options WriteOptions
+     * @param maxAttempts max number of saves
+     * @return saved Entity or null if it was not saved within maxAttempts
+     */
+    @SuppressWarnings("unchecked")
+    public <E> E saveOrMerge(E entity, MergeFunction<E> merge, WriteOptions options, int maxAttempts) {
+        Class<E> clazz = (Class<E>) entity.getClass();
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        if (!entityMetadata.hasConditionalVersion()) {
+            return save(entity, options);
+        }
+        EntityFieldMetaData verField = entityMetadata.getVersionField();
+
+        E mine = entity;
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            boolean insert = ((Long) verField.getValue(mine)).longValue() <= 0;
+            SaveResult<E> result = join(saveWithResult(mine, options));
+            if (result.isApplied()) {
+                return mine;
+            }
+
+            E current = result.getCurrent();
+            if (!insert && current != null) {
+                // UPDATE ... IF returns only the condition columns
+                EntityFieldMetaData idField = entityMetadata.getPrimaryKeyMetadata().getOwnField();
+                if (merge instanceof MergeFunction.VersionOnly) {
+                    Object version = verField.getValue(current);
+                    if (version == null || ((Long) version).longValue() <= 0) {
+                        // no version returned, the row was deleted
+                        current = null;
+                    } else {
+                        idField.setValue(current, idField.getValue(mine));
+                    }
+                } else {
+                    current = get(clazz, idField.getValue(mine));
+                }
+            }
+            mine = merge.merge(mine, current);
+            if (mine == null) {
+                return null;
+            }
+            verField.setValue(mine, current == null ? 0L : verField.getValue(current));
+        }
+        return null;
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static void restoreVersion(Object entity, EntityFieldMetaData verField, Object oldVersion) {
+        if (verField != null) {
+            verField.setValue(entity, oldVersion);
+        }
+    }
+
+    /**
+     * Enable micro-batching of saveAsync. Concurrent async saves to the same
+     * partition are held for up to the linger time and sent as one unlogged
+     * batch; each returned future completes when its batch completes.
+     * A repeated save of the same row within the linger time replaces the
+     * queued one. Entities with LWT @Version are always saved individually.
+     * 
+     * @param options MicroBatchOptions or null to disable micro-batching
+     */
+    public synchronized void setMicroBatching(MicroBatchOptions options) {
+        MicroBatcher previous = microBatcher;
+        microBatcher = options == null ? null : new MicroBatcher(session, options);
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Save many Entities keeping a bounded number of writes in flight. The
+     * calling thread is blocked while the limit is reached, so the Iterable
+     * may be a lazy source of any size. Failures are collected, not thrown.
+     * 
+     * @param entities to save
+     * @param options BulkOptions, can be null
+     * @return BulkResult once all writes completed
+     */
+    public <E> BulkResult<E> saveAll(Iterable<E> entities, BulkOptions options) {
+        final WriteOptions writeOptions = options == null ? null : options.getWriteOptions();
+        int maxInFlight = options == null ? new BulkOptions().getMaxInFlight() : options.getMaxInFlight();
+        return BulkWriter.write(session, entities, maxInFlight, new Function<E, Statement>() {
+            public Statement apply(E entity) {
+                maybeSync(entity.getClass());
+                discardWriteBehind(entity);
+                return MappingBuilder.prepareBoundSave(entity, writeOptions, keyspace, session);
+            }
+        });
+    }
+
+    /**
+     * Delete many Entities keeping a bounded number of writes in flight.
+     * Consistency level and retry policy of WriteOptions are applied.
+     * 
+     * @param entities to delete
+     * @param options BulkOptions, can be null
+     * @return BulkResult once all deletes completed
+     */
+    public <E> BulkResult<E> deleteAll(Iterable<E> entities, BulkOptions options) {
+        final WriteOptions writeOptions = options == null ? null : options.getWriteOptions();
+        int maxInFlight = options == null ? new BulkOptions().getMaxInFlight() : options.getMaxInFlight();
+        return BulkWriter.write(session, entities, maxInFlight, new Function<E, Statement>() {
+            public Statement apply(E entity) {
+                maybeSync(entity.getClass());
+                discardWriteBehind(entity);
+                BoundStatement bs = MappingBuilder.prepareBoundDelete(entity, keyspace, session);
+                MappingBuilder.applyOptions(writeOptions, bs);
+                return bs;
+            }
+        });
+    }
+
+    /**
+     * Increment COUNTER property of the row. If counter accumulation is
+     * enabled for the class the delta is added in memory and written on
+     * the next flush.
+     * 
+     * @param class Entity.class
+     * @param id Primary Key
+     * @param propertyName COUNTER property of Entity
+     * @param delta value to add, may be negative
+     */
+    public void increment(Class<?> clazz, Object id, String propertyName, long delta) {
+        if (!counters.isEmpty()) {
+            CounterAccumulator accumulator = counters.get(clazz);
+            if (accumulator != null) {
+                EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
+                MappingBuilder.getCounterField(emeta, propertyName);
+                accumulator.add(emeta.getIdValues(id), propertyName, delta);
+                return;
+            }
+        }
+        incrementAsync(clazz, id, propertyName, delta, null).getUninterruptibly();
+    }
+
+    /**
+     * Asynchronously increment COUNTER property of the row with prepared
+     * UPDATE ... SET c = c + ?. Counter accumulation is not applied.
+     * 
+     * @param class Entity.class
+     * @param id Primary Key
+     * @param propertyName COUNTER property of Entity
+     * @param delta value to add, may be negative
+     * @param options WriteOptions, only consistency level and retry policy
+     *        apply to counters
+     * @return ResultSetFuture
+     */
+    public ResultSetFuture incrementAsync(final Class<?> clazz, final Object id, final String propertyName, final long delta, final WriteOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return incrementAsync(clazz, id, propertyName, delta, options);
+                }
+            });
+        }
+        maybeSync(clazz);
+        BoundStatement bs = MappingBuilder.prepareIncrement(id, clazz, propertyName, delta, options, keyspace, session);
+        return executeAsync(bs);
+    }
+
+    /**
+     * Enable counter accumulation for the Entity class. increment() sums
+     * deltas per row and property in memory, lock-free, and the sums are
+     * written periodically in COUNTER batches grouped by partition, on
+     * flush() and on close().
+     * 
+     * @param class Entity.class with COUNTER properties
+     * @param options CounterOptions, can be null
+     */
+    public synchronized void enableCounterAccumulator(Class<?> clazz, CounterOptions options) {
+        if (!counters.containsKey(clazz)) {
+            counters.put(clazz, new CounterAccumulator(this, clazz, options == null ? new CounterOptions() : options, getScheduler()));
+        }
+    }
+
+    /**
+     * Enable write-behind mode for the Entity class. save() of the class puts
+     * the entity into a buffer keyed by primary key and returns immediately;
+     * repeated saves of the same key are coalesced and only the last state is
+     * written. The buffer is flushed on interval, when it grows to
+     * maxBuffered entities, and on close(). Other saves and deletes of the
+     * row, single, async, bulk or in a batch, discard its pending save and
+     * write directly; updates of individual properties first write the
+     * pending save of the row. Either waits while the row is being flushed.
+     * Reads do not see buffered entities until they are flushed.
+     * 
+     * @param class Entity.class without LWT @Version
+     * @param options WriteBehindOptions, can be null
+     */
+    public synchronized void enableWriteBehind(Class<?> clazz, WriteBehindOptions options) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        if (entityMetadata.hasConditionalVersion()) {
+            throw new IllegalArgumentException("Write-behind can not be enabled for LWT @Version entity " + clazz.getName());
+        }
+        if (writeBehind.containsKey(clazz)) {
+            return;
+        }
+        writeBehind.put(clazz, new WriteBehindBuffer(this, clazz, options == null ? new WriteBehindOptions() : options, getScheduler()));
+    }
+
+    /**
+     * @return single daemon thread running background flushes
+     */
+    protected synchronized ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "mapping-background-flush");
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return scheduler;
+    }
+
+    /**
+     * @param class Entity.class
+     * @return metrics of write-behind buffer or null if not enabled
+     */
+    public WriteBehindMetrics getWriteBehindMetrics(Class<?> clazz) {
+        WriteBehindBuffer buffer = writeBehind.get(clazz);
+        return buffer == null ? null : buffer.getMetrics();
+    }
+
+    /**
+     * Write all entities buffered in write-behind mode and accumulated
+     * counter deltas, and wait for the writes to complete.
+     */
+    public void flush() {
+        for (WriteBehindBuffer buffer : writeBehind.values()) {
+            buffer.flush();
+        }
+        for (CounterAccumulator accumulator : counters.values()) {
+            accumulator.flush();
+        }
+    }
+
+    /**
+     * Send pending micro-batches, flush write-behind buffers and counter
+     * accumulators and stop background flushing. The
+     * underlying datastax Session is not closed.
+     */
+    public synchronized void close() {
+        setMicroBatching(null);
+        for (WriteBehindBuffer buffer : writeBehind.values()) {
+            buffer.close();
+        }
+        writeBehind.clear();
+        for (CounterAccumulator accumulator : counters.values()) {
+            accumulator.close();
+        }
+        counters.clear();
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler = null;
+        }
+    }
+
+    private void discardWriteBehind(Object entity) {
+        if (!writeBehind.isEmpty()) {
+            WriteBehindBuffer buffer = writeBehind.get(entity.getClass());
+            if (buffer != null) {
+                buffer.discard(EntityTypeParser.getEntityMetadata(entity.getClass()).getEntityPKValues(entity));
+            }
+        }
+    }
+
+    /** buffered saves must reach storage before a range tombstone covering them */
+    private void flushWriteBehind(Class<?> clazz) {
+        if (!writeBehind.isEmpty()) {
+            WriteBehindBuffer buffer = writeBehind.get(clazz);
+            if (buffer != null) {
+                buffer.flush();
+            }
+        }
+    }
+
+    private void discardWriteBehind(Class<?> clazz, Object id) {
+        if (!writeBehind.isEmpty()) {
+            WriteBehindBuffer buffer = writeBehind.get(clazz);
+            if (buffer != null) {
+                buffer.discard(EntityTypeParser.getEntityMetadata(clazz).getIdValues(id));
+            }
+        }
+    }
+
+    /** buffered save of the row must reach storage before the row is partially updated */
+    private void flushWriteBehind(Class<?> clazz, Object id) {
+        if (!writeBehind.isEmpty()) {
+            WriteBehindBuffer buffer = writeBehind.get(clazz);
+            if (buffer != null) {
+                buffer.flush(EntityTypeParser.getEntityMetadata(clazz).getIdValues(id));
+            }
+        }
+    }
+
     /**
      * Remove an item or items from the Set or List.
      * 
@@ -317,8 +1401,22 @@ public class MappingSession {
      * @param item can be single value, a List or a Set of values to remove.
      */
     public void remove(Object id, Class<?> clazz, String propertyName, Object item) {
+        remove(id, clazz, propertyName, item, null);
+    }
+
+    /**
+     * Remove an item or items from the Set or List.
+     * 
+     * @param id Primary Key
+     * @param class Entity.class
+     * @param propertyName property of Entity to modify
+     * @param item can be single value, a List or a Set of values to remove.
+     * @param options WriteOptions
+     */
+    public void remove(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options) {
         maybeSync(clazz);
-        BoundStatement bs = MappingBuilder.prepareRemoveItemsFromSetOrList(id, clazz, propertyName, item, keyspace, session);
+        flushWriteBehind(clazz, id);
+        BoundStatement bs = MappingBuilder.prepareRemoveItemsFromSetOrList(id, clazz, propertyName, item, options, keyspace, session);
         execute(bs);
     }
 
@@ -332,8 +1430,31 @@ public class MappingSession {
      * @return ResultSetFuture.
      */
     public ResultSetFuture removeAsync(Object id, Class<?> clazz, String propertyName, Object item) {
+        return removeAsync(id, clazz, propertyName, item, null);
+    }
+
+    /**
+     * Asynchronously Remove an item or items from the Set or List.
+     * 
+     * @param id Primary Key
+     * @param class Entity.class
+     * @param propertyName property of Entity to modify
+     * @param item can be single value, a List or a Set of values to remove.
+     * @param options WriteOptions
+     * @return ResultSetFuture.
+     */
+    public ResultSetFuture removeAsync(final Object id, final Class<?> clazz, final String propertyName, final Object item, final WriteOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return removeAsync(id, clazz, propertyName, item, options);
+                }
+            });
+        }
         maybeSync(clazz);
-        BoundStatement bs = MappingBuilder.prepareRemoveItemsFromSetOrList(id, clazz, propertyName, item, keyspace, session);
+        flushWriteBehind(clazz, id);
+        BoundStatement bs = MappingBuilder.prepareRemoveItemsFromSetOrList(id, clazz, propertyName, item, options, keyspace, session);
         return executeAsync(bs);
     }
 
@@ -345,8 +1466,21 @@ public class MappingSession {
      * @param propertyName Entity property
      */
     public void deleteValue(Object id, Class<?> clazz, String propertyName) {
+        deleteValue(id, clazz, propertyName, null);
+    }
+
+    /**
+     * Delete value for an individual property
+     * 
+     * @param id Primary Key
+     * @param class Entity.class
+     * @param propertyName Entity property
+     * @param options WriteOptions
+     */
+    public void deleteValue(Object id, Class<?> clazz, String propertyName, WriteOptions options) {
         maybeSync(clazz);
-        BoundStatement bs = MappingBuilder.prepareDelete(id, clazz, propertyName, keyspace, session);
+        flushWriteBehind(clazz, id);
+        BoundStatement bs = MappingBuilder.prepareDelete(id, clazz, propertyName, options, keyspace, session);
         execute(bs);
     }
 
@@ -359,8 +1493,30 @@ public class MappingSession {
      * @return ResultSetFuture.
      */
     public ResultSetFuture deleteValueAsync(Object id, Class<?> clazz, String propertyName) {
+        return deleteValueAsync(id, clazz, propertyName, null);
+    }
+
+    /**
+     * Asynchronously Delete value for an individual property
+     * 
+     * @param id Primary Key
+     * @param class Entity.class
+     * @param propertyName Entity property
+     * @param options WriteOptions
+     * @return ResultSetFuture.
+     */
+    public ResultSetFuture deleteValueAsync(final Object id, final Class<?> clazz, final String propertyName, final WriteOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return deleteValueAsync(id, clazz, propertyName, options);
+                }
+            });
+        }
         maybeSync(clazz);
-        BoundStatement bs = MappingBuilder.prepareDelete(id, clazz, propertyName, keyspace, session);
+        flushWriteBehind(clazz, id);
+        BoundStatement bs = MappingBuilder.prepareDelete(id, clazz, propertyName, options, keyspace, session);
         return executeAsync(bs);
     }
 
@@ -387,6 +1543,7 @@ public class MappingSession {
      */
     public void append(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options) {
         maybeSync(clazz);
+        flushWriteBehind(clazz, id);
         BoundStatement bs = MappingBuilder.prepareAppendItemToCollection(id, clazz, propertyName, item, options, keyspace, session);
         execute(bs);
     }
@@ -414,8 +1571,17 @@ public class MappingSession {
      * @param options WriteOptions
      * @return ResultSetFuture.
      */
-    public ResultSetFuture appendAsync(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options) {
+    public ResultSetFuture appendAsync(final Object id, final Class<?> clazz, final String propertyName, final Object item, final WriteOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return appendAsync(id, clazz, propertyName, item, options);
+                }
+            });
+        }
         maybeSync(clazz);
+        flushWriteBehind(clazz, id);
         BoundStatement bs = MappingBuilder.prepareAppendItemToCollection(id, clazz, propertyName, item, options, keyspace, session);
         return executeAsync(bs);
     }
@@ -454,6 +1620,7 @@ public class MappingSession {
      */
     public void updateValues(Object id, Class<?> clazz, String[] propertyNames, Object[] values, WriteOptions options) {
         maybeSync(clazz);
+        flushWriteBehind(clazz, id);
         BoundStatement bs = MappingBuilder.prepareUpdateValues(id, clazz, propertyNames, values, options, keyspace, session);
         execute(bs);
     }
@@ -482,6 +1649,7 @@ public class MappingSession {
      */
     public void updateValue(Object id, Class<?> clazz, String propertyName, Object value, WriteOptions options) {
         maybeSync(clazz);
+        flushWriteBehind(clazz, id);
         BoundStatement bs = MappingBuilder.prepareUpdateValue(id, clazz, propertyName, value, options, keyspace, session);
         execute(bs);
     }
@@ -496,8 +1664,17 @@ public class MappingSession {
      * @param options WriteOptions
      * @return ResultSetFuture.
      */
-    public ResultSetFuture updateValueAsync(Object id, Class<?> clazz, String propertyName, Object value, WriteOptions options) {
+    public ResultSetFuture updateValueAsync(final Object id, final Class<?> clazz, final String propertyName, final Object value, final WriteOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return updateValueAsync(id, clazz, propertyName, value, options);
+                }
+            });
+        }
         maybeSync(clazz);
+        flushWriteBehind(clazz, id);
         BoundStatement bs = MappingBuilder.prepareUpdateValue(id, clazz, propertyName, value, options, keyspace, session);
         return executeAsync(bs);
     }
@@ -522,8 +1699,17 @@ public class MappingSession {
      * @param propertyNames Array of properties to update
      * @param value array of values to update
      */
-    public ResultSetFuture updateValuesAsync(Object id, Class<?> clazz, String[] propertyNames, Object[] values, WriteOptions options) {
+    public ResultSetFuture updateValuesAsync(final Object id, final Class<?> clazz, final String[] propertyNames, final Object[] values, final WriteOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return updateValuesAsync(id, clazz, propertyNames, values, options);
+                }
+            });
+        }
         maybeSync(clazz);
+        flushWriteBehind(clazz, id);
         BoundStatement bs = MappingBuilder.prepareUpdateValues(id, clazz, propertyNames, values, options, keyspace, session);
         return executeAsync(bs);
     }
@@ -564,6 +1750,7 @@ public class MappingSession {
      */
     public void prepend(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options) {
         maybeSync(clazz);
+        flushWriteBehind(clazz, id);
         BoundStatement bs = MappingBuilder.preparePrependItemToList(id, clazz, propertyName, item, options, keyspace, session);
         execute(bs);
     }
@@ -578,8 +1765,17 @@ public class MappingSession {
      * @param options WriteOptions
      * @return ResultSetFuture.
      */
-    public ResultSetFuture prependAsync(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options) {
+    public ResultSetFuture prependAsync(final Object id, final Class<?> clazz, final String propertyName, final Object item, final WriteOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return prependAsync(id, clazz, propertyName, item, options);
+                }
+            });
+        }
         maybeSync(clazz);
+        flushWriteBehind(clazz, id);
         BoundStatement bs = MappingBuilder.preparePrependItemToList(id, clazz, propertyName, item, options, keyspace, session);
         return executeAsync(bs);
     }
@@ -623,6 +1819,7 @@ public class MappingSession {
      */
     public void replaceAt(Object id, Class<?> clazz, String propertyName, Object item, int idx, WriteOptions options) {
         maybeSync(clazz);
+        flushWriteBehind(clazz, id);
         BoundStatement bs = MappingBuilder.prepareReplaceAt(id, clazz, propertyName, item, idx, options, keyspace, session);
         execute(bs);
     }
@@ -638,29 +1835,308 @@ public class MappingSession {
      * @param options WriteOptions
      * @return ResultSetFuture.
      */
-    public ResultSetFuture replaceAtAsync(Object id, Class<?> clazz, String propertyName, Object item, int idx, WriteOptions options) {
+    public ResultSetFuture replaceAtAsync(final Object id, final Class<?> clazz, final String propertyName, final Object item, final int idx, final WriteOptions options) {
+        CompletableFuture<Void> sync = pendingSync(clazz);
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return replaceAtAsync(id, clazz, propertyName, item, idx, options);
+                }
+            });
+        }
         maybeSync(clazz);
+        flushWriteBehind(clazz, id);
         BoundStatement bs = MappingBuilder.prepareReplaceAt(id, clazz, propertyName, item, idx, options, keyspace, session);
         return executeAsync(bs);
     }
 
+    /**
+     * Resolve the property of the entity once. The returned reference can be
+     * held and passed to updateValue, append, prepend, replaceAt, remove and
+     * deleteValue to skip the lookup by name on every call.
+     * 
+     * @param class Entity.class
+     * @param propertyName property of Entity
+     * @throws IllegalArgumentException if the entity has no such property
+     */
+    public <T> PropertyRef<T> property(Class<T> clazz, String propertyName) {
+        return EntityTypeParser.getEntityMetadata(clazz).getPropertyRef(propertyName);
+    }
+
+    /**
+     * Update value of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param value new value
+     * @param options WriteOptions, can be null
+     */
+    public void updateValue(Object id, PropertyRef<?> property, Object value, WriteOptions options) {
+        maybeSync(property.getEntityClass());
+        flushWriteBehind(property.getEntityClass(), id);
+        execute(MappingBuilder.prepareUpdateValue(id, property.getEntityMetadata(), property.getField(), value, options, keyspace, session));
+    }
+
+    /**
+     * Asynchronously update value of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param value new value
+     * @param options WriteOptions, can be null
+     * @return ResultSetFuture
+     */
+    public ResultSetFuture updateValueAsync(final Object id, final PropertyRef<?> property, final Object value, final WriteOptions options) {
+        return executeAsync(id, property, new Callable<BoundStatement>() {
+            public BoundStatement call() {
+                return MappingBuilder.prepareUpdateValue(id, property.getEntityMetadata(), property.getField(), value, options, keyspace, session);
+            }
+        });
+    }
+
+    /**
+     * Append value or values to the Set, List or Map of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param item can be a single value, a List, Set or a Map
+     * @param options WriteOptions, can be null
+     */
+    public void append(Object id, PropertyRef<?> property, Object item, WriteOptions options) {
+        maybeSync(property.getEntityClass());
+        flushWriteBehind(property.getEntityClass(), id);
+        execute(MappingBuilder.prepareAppendItemToCollection(id, property.getEntityMetadata(), property.getField(), item, options, keyspace, session));
+    }
+
+    /**
+     * Asynchronously append value or values to the Set, List or Map of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param item can be a single value, a List, Set or a Map
+     * @param options WriteOptions, can be null
+     * @return ResultSetFuture
+     */
+    public ResultSetFuture appendAsync(final Object id, final PropertyRef<?> property, final Object item, final WriteOptions options) {
+        return executeAsync(id, property, new Callable<BoundStatement>() {
+            public BoundStatement call() {
+                return MappingBuilder.prepareAppendItemToCollection(id, property.getEntityMetadata(), property.getField(), item, options, keyspace, session);
+            }
+        });
+    }
+
+    /**
+     * Place item or items at the beginning of the List of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param item can be a single value or a List
+     * @param options WriteOptions, can be null
+     */
+    public void prepend(Object id, PropertyRef<?> property, Object item, WriteOptions options) {
+        maybeSync(property.getEntityClass());
+        flushWriteBehind(property.getEntityClass(), id);
+        execute(MappingBuilder.preparePrependItemToList(id, property.getEntityMetadata(), property.getField(), item, options, keyspace, session));
+    }
+
+    /**
+     * Asynchronously place item or items at the beginning of the List of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param item can be a single value or a List
+     * @param options WriteOptions, can be null
+     * @return ResultSetFuture
+     */
+    public ResultSetFuture prependAsync(final Object id, final PropertyRef<?> property, final Object item, final WriteOptions options) {
+        return executeAsync(id, property, new Callable<BoundStatement>() {
+            public BoundStatement call() {
+                return MappingBuilder.preparePrependItemToList(id, property.getEntityMetadata(), property.getField(), item, options, keyspace, session);
+            }
+        });
+    }
+
+    /**
+     * Replace item at the specified position in the List of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param item new value
+     * @param idx position in the List
+     * @param options WriteOptions, can be null
+     */
+    public void replaceAt(Object id, PropertyRef<?> property, Object item, int idx, WriteOptions options) {
+        maybeSync(property.getEntityClass());
+        flushWriteBehind(property.getEntityClass(), id);
+        execute(MappingBuilder.prepareReplaceAt(id, property.getEntityMetadata(), property.getField(), item, idx, options, keyspace, session));
+    }
+
+    /**
+     * Asynchronously replace item at the specified position in the List of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param item new value
+     * @param idx position in the List
+     * @param options WriteOptions, can be null
+     * @return ResultSetFuture
+     */
+    public ResultSetFuture replaceAtAsync(final Object id, final PropertyRef<?> property, final Object item, final int idx, final WriteOptions options) {
+        return executeAsync(id, property, new Callable<BoundStatement>() {
+            public BoundStatement call() {
+                return MappingBuilder.prepareReplaceAt(id, property.getEntityMetadata(), property.getField(), item, idx, options, keyspace, session);
+            }
+        });
+    }
+
+    /**
+     * Remove an item or items from the Set or List of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param item can be single value, a List or a Set of values to remove
+     */
+    public void remove(Object id, PropertyRef<?> property, Object item) {
+        remove(id, property, item, null);
+    }
+
+    /**
+     * Remove an item or items from the Set or List of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param item can be single value, a List or a Set of values to remove
+     * @param options WriteOptions
+     */
+    public void remove(Object id, PropertyRef<?> property, Object item, WriteOptions options) {
+        maybeSync(property.getEntityClass());
+        flushWriteBehind(property.getEntityClass(), id);
+        execute(MappingBuilder.prepareRemoveItemsFromSetOrList(id, property.getEntityMetadata(), property.getField(), item, options, keyspace, session));
+    }
+
+    /**
+     * Asynchronously remove an item or items from the Set or List of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param item can be single value, a List or a Set of values to remove
+     * @return ResultSetFuture
+     */
+    public ResultSetFuture removeAsync(Object id, PropertyRef<?> property, Object item) {
+        return removeAsync(id, property, item, null);
+    }
+
+    /**
+     * Asynchronously remove an item or items from the Set or List of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param item can be single value, a List or a Set of values to remove
+     * @param options WriteOptions
+     * @return ResultSetFuture
+     */
+    public ResultSetFuture removeAsync(final Object id, final PropertyRef<?> property, final Object item, final WriteOptions options) {
+        return executeAsync(id, property, new Callable<BoundStatement>() {
+            public BoundStatement call() {
+                return MappingBuilder.prepareRemoveItemsFromSetOrList(id, property.getEntityMetadata(), property.getField(), item, options, keyspace, session);
+            }
+        });
+    }
+
+    /**
+     * Delete value of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     */
+    public void deleteValue(Object id, PropertyRef<?> property) {
+        deleteValue(id, property, null);
+    }
+
+    /**
+     * Delete value of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param options WriteOptions
+     */
+    public void deleteValue(Object id, PropertyRef<?> property, WriteOptions options) {
+        maybeSync(property.getEntityClass());
+        flushWriteBehind(property.getEntityClass(), id);
+        execute(MappingBuilder.prepareDelete(id, property.getEntityMetadata(), property.getField(), options, keyspace, session));
+    }
+
+    /**
+     * Asynchronously delete value of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @return ResultSetFuture
+     */
+    public ResultSetFuture deleteValueAsync(Object id, PropertyRef<?> property) {
+        return deleteValueAsync(id, property, null);
+    }
+
+    /**
+     * Asynchronously delete value of the resolved property.
+     * 
+     * @param id Primary Key
+     * @param property resolved property
+     * @param options WriteOptions
+     * @return ResultSetFuture
+     */
+    public ResultSetFuture deleteValueAsync(final Object id, final PropertyRef<?> property, final WriteOptions options) {
+        return executeAsync(id, property, new Callable<BoundStatement>() {
+            public BoundStatement call() {
+                return MappingBuilder.prepareDelete(id, property.getEntityMetadata(), property.getField(), options, keyspace, session);
+            }
+        });
+    }
+
+    /** execute the statement built for the property of the row once its entity is synchronized */
+    private ResultSetFuture executeAsync(final Object id, final PropertyRef<?> property, final Callable<BoundStatement> statement) {
+        CompletableFuture<Void> sync = pendingSync(property.getEntityClass());
+        if (sync != null) {
+            return afterSyncResultSet(sync, new Callable<ResultSetFuture>() {
+                public ResultSetFuture call() throws Exception {
+                    return executeAsync(id, property, statement);
+                }
+            });
+        }
+        maybeSync(property.getEntityClass());
+        flushWriteBehind(property.getEntityClass(), id);
+        try {
+            return executeAsync(statement.call());
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public BatchExecutor withBatch() {
         return new BatchExecutor(this);
     }
 
-    /** This Class is wrapper for batch operations. */
+    /**
+     * This Class is wrapper for batch operations. Statements are grouped by
+     * partition and split according to BatchOptions. Batches of different
+     * partitions are executed concurrently, batches of one partition one
+     * after another.
+     */
     public static class BatchExecutor {
-        List<RegularStatement> statements = new ArrayList<RegularStatement>();
-        MappingSession         m;
-        Batch                  b;
+        List<PartitionBatcher.Entry> entries = new ArrayList<PartitionBatcher.Entry>();
+        MappingSession               m;
+        BatchOptions                 options = new BatchOptions();
 
         public BatchExecutor(MappingSession m) {
             this.m = m;
-            b = QueryBuilder.batch(new RegularStatement[0]);
         }
 
         public <E> BatchExecutor delete(E entity) {
-            b.add(MappingBuilder.buildDelete(entity, m.keyspace));
+            m.maybeSync(entity.getClass());
+            m.discardWriteBehind(entity);
+            add(entity, MappingBuilder.prepareBoundDelete(entity, m.keyspace, m.session));
             return this;
         }
 
@@ -671,10 +2147,26 @@ public class MappingSession {
 
         public <E> BatchExecutor save(E entity, WriteOptions options) {
             m.maybeSync(entity.getClass());
-            b.add(MappingBuilder.prepareSave(entity, options, m.keyspace));
+            m.discardWriteBehind(entity);
+            add(entity, MappingBuilder.prepareBoundSave(entity, options, m.keyspace, m.session));
             return this;
         }
 
+        private <E> void add(E entity, BoundStatement stmt) {
+            EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
+            List<Object> partitionValues = entityMetadata.getEntityPartitionKeyValues(entity);
+            List<Object> partition = new ArrayList<Object>(partitionValues.size() + 2);
+            partition.add(m.keyspace);
+            partition.add(entityMetadata.getTableName());
+            partition.addAll(partitionValues);
+            List<Object> pkValues = entityMetadata.getEntityPKValues(entity);
+            List<Object> row = new ArrayList<Object>(pkValues.size() + 2);
+            row.add(m.keyspace);
+            row.add(entityMetadata.getTableName());
+            row.addAll(pkValues);
+            entries.add(new PartitionBatcher.Entry(stmt, partition, row, PartitionBatcher.estimateSize(stmt)));
+        }
+
         /**
          * Apply Options to the whole batch statement.
          * 
@@ -682,28 +2174,85 @@ public class MappingSession {
          */
         public void withOptions(BatchOptions options) {
             if (options != null) {
-                if (options.getConsistencyLevel() != null) {
-                    b.setConsistencyLevel(options.getConsistencyLevel());
-                }
-
-                if (options.getRetryPolicy() != null) {
-                    b.setRetryPolicy(options.getRetryPolicy());
-                }
+                this.options = options;
             }
         }
 
         /** execute batch statement */
         public void execute() {
-            m.session.execute(b);
+            executeAsync().getUninterruptibly();
         }
 
         /**
-         * Asynchronously execute batch statement
+         * Asynchronously execute batch statement. When the batch is split the
+         * future completes once all parts completed, with the ResultSet of
+         * the first part, or fails with the first failure. Parts following
+         * a failed part of the same partition are not executed.
          * 
          * @return ResultSetFuture
+         * @throws IllegalArgumentException if LOGGED batch exceeds the limits
+         *         of BatchOptions
          */
         public ResultSetFuture executeAsync() {
-            return m.session.executeAsync(b);
+            List<List<Statement>> partitions = PartitionBatcher.splitByPartition(entries, options.getBatchType(), options.getMaxStatements(), options.getMaxSizeBytes());
+            if (partitions.isEmpty()) {
+                return execute(new BatchStatement(options.getBatchType()));
+            }
+            if (partitions.size() == 1 && partitions.get(0).size() == 1) {
+                return execute(partitions.get(0).get(0));
+            }
+
+            List<ListenableFuture<ResultSet>> futures = new ArrayList<ListenableFuture<ResultSet>>(partitions.size());
+            for (List<Statement> statements : partitions) {
+                futures.add(executeInOrder(statements));
+            }
+
+            final SettableResultSetFuture result = new SettableResultSetFuture();
+            Futures.addCallback(Futures.allAsList(futures), new FutureCallback<List<ResultSet>>() {
+                public void onSuccess(List<ResultSet> rs) {
+                    result.set(rs.get(0));
+                }
+
+                public void onFailure(Throwable t) {
+                    result.setException(t);
+                }
+            }, MoreExecutors.directExecutor());
+            return result;
+        }
+
+        /**
+         * Execute statements one after another, each once the previous one
+         * succeeded. Future of the ResultSet of the first statement.
+         */
+        private ListenableFuture<ResultSet> executeInOrder(List<Statement> statements) {
+            final ResultSetFuture first = execute(statements.get(0));
+            ListenableFuture<ResultSet> f = first;
+            for (int i = 1; i < statements.size(); i++) {
+                final Statement next = statements.get(i);
+                f = Futures.transformAsync(f, new AsyncFunction<ResultSet, ResultSet>() {
+                    public ListenableFuture<ResultSet> apply(ResultSet rs) {
+                        return execute(next);
+                    }
+                }, MoreExecutors.directExecutor());
+            }
+            if (f == first) {
+                return first;
+            }
+            return Futures.transform(f, new Function<ResultSet, ResultSet>() {
+                public ResultSet apply(ResultSet last) {
+                    return Futures.getUnchecked(first);
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        private ResultSetFuture execute(Statement stmt) {
+            if (options.getConsistencyLevel() != null) {
+                stmt.setConsistencyLevel(options.getConsistencyLevel());
+            }
+            if (options.getRetryPolicy() != null) {
+                stmt.setRetryPolicy(options.getRetryPolicy());
+            }
+            return m.session.executeAsync(stmt);
         }
     }
 
@@ -770,23 +2319,122 @@ public class MappingSession {
         return null;
     }
 
+    /**
+     * Sync decision of the session for an entity class, valid while the
+     * epoch matches the current sync epoch and the session still uses the
+     * same, unmodified SyncOptions.
+     */
+    protected static class SyncState {
+        final int         epoch;
+        final SyncOptions options;
+        final int         optionsVersion;
+
+        SyncState(int epoch, SyncOptions options, int optionsVersion) {
+            this.epoch = epoch;
+            this.options = options;
+            this.optionsVersion = optionsVersion;
+        }
+
+        boolean isValid(int epoch, SyncOptions options) {
+            return this.epoch == epoch && this.options == options && this.optionsVersion == options.getVersion();
+        }
+    }
+
     /** run sync if not yet done */
     protected void maybeSync(Class<?> clazz) {
+        int epoch = EntityTypeMetadata.getSyncEpoch();
+        SyncOptions options = syncOptions;
+        SyncState state = syncStates.get(clazz);
+        if (state != null && state.isValid(epoch, options)) {
+            return;
+        }
+        // read before the sync, a change made meanwhile triggers another check
+        int optionsVersion = options.getVersion();
+        doSync(clazz);
+        syncStates.put(clazz, new SyncState(epoch, options, optionsVersion));
+    }
+
+    private void doSync(Class<?> clazz) {
         if (syncOptions.isDoNotSync(clazz))
             return; // forced to skip sync for this class
 
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
         if (!entityMetadata.isSynced(keyspace)) {
+            CompletableFuture<Void> sync = pendingSync(clazz);
+            if (sync != null) {
+                try {
+                    sync.join();
+                    return;
+                } catch (CompletionException e) {
+                    // failed in background, retry in place
+                }
+            }
             SchemaSync.sync(keyspace, session, clazz, syncOptions);
         }
     }
 
+    /**
+     * @return background sync of the entity still in progress or null
+     */
+    protected CompletableFuture<Void> pendingSync(Class<?> clazz) {
+        if (backgroundSync.isEmpty()) {
+            return null;
+        }
+        CompletableFuture<Void> sync = backgroundSync.get(clazz);
+        if (sync == null || sync.isDone()) {
+            return null;
+        }
+        return sync;
+    }
+
+    /**
+     * Run the async operation when the background sync completes. The
+     * operation runs regardless of the sync outcome, failed sync is retried
+     * by the operation itself.
+     */
+    protected <V> ListenableFuture<V> afterSync(CompletableFuture<Void> sync, final Callable<ListenableFuture<V>> operation) {
+        final SettableFuture<V> result = SettableFuture.create();
+        sync.whenComplete(new BiConsumer<Void, Throwable>() {
+            public void accept(Void ignored, Throwable failure) {
+                try {
+                    result.setFuture(operation.call());
+                } catch (Throwable t) {
+                    result.setException(t);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * ResultSetFuture counterpart of afterSync.
+     */
+    protected ResultSetFuture afterSyncResultSet(CompletableFuture<Void> sync, final Callable<ResultSetFuture> operation) {
+        final SettableResultSetFuture result = new SettableResultSetFuture();
+        sync.whenComplete(new BiConsumer<Void, Throwable>() {
+            public void accept(Void ignored, Throwable failure) {
+                try {
+                    ResultSetFuture f = operation.call();
+                    if (f == null) {
+                        result.set(null);
+                    } else {
+                        result.setFuture(f);
+                    }
+                } catch (Throwable t) {
+                    result.setException(t);
+                }
+            }
+        });
+        return result;
+    }
+
     public Session getSession() {
         return session;
     }
 
     public void setSession(Session session) {
         this.session = session;
+        syncStates.clear();
     }
 
     public String getKeyspace() {
@@ -795,6 +2443,7 @@ public class MappingSession {
 
     public void setKeyspace(String keyspace) {
         this.keyspace = keyspace;
+        syncStates.clear();
     }
 
 	public SyncOptions getSyncOptions() {
@@ -803,5 +2452,39 @@ public class MappingSession {
 
 	public void setSyncOptions(SyncOptions syncOptions) {
 		this.syncOptions = syncOptions;
+		syncStates.clear();
 	}
+
+    public boolean isSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * When enabled concurrent get/getAsync calls for the same entity, id and
+     * consistency level share one in-flight query instead of each sending its
+     * own SELECT. Every caller still receives its own entity instance.
+     * 
+     * @param singleFlight
+     */
+    public void setSingleFlight(boolean singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    /**
+     * Wait for the future and rethrow the cause of the failure as is.
+     */
+    protected static <V> V getUninterruptibly(ListenableFuture<V> future) {
+        try {
+            return Uninterruptibles.getUninterruptibly(future);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
 }
@@ -0,0 +1,41 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+/**
+ * Resolves a conflict of a versioned save: combines the entity which failed
+ * to save with the current server state.
+ */
+public interface MergeFunction<E> {
+
+    /**
+     * @param mine entity which was not saved because of a newer version
+     * @param current current state of the row, or null if the row no longer
+     *        exists
+     * @return entity to save next, its @Version is set by the mapper
+     */
+    E merge(E mine, E current);
+
+    /**
+     * Merge function which needs only the current version of the row. A
+     * rejected UPDATE returns only the version in the LWT response, with
+     * this function saveOrMerge merges with that response instead of
+     * reading the row: current has the primary key and @Version set, other
+     * properties are not loaded.
+     */
+    interface VersionOnly<E> extends MergeFunction<E> {
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.mapping.option.MicroBatchOptions;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+
+/**
+ * Collects writes to the same partition for up to the linger time and sends
+ * them as one unlogged batch. The first write of a partition opens a group
+ * and schedules its send, the group is sent earlier when it reaches
+ * maxBatchSize. Each caller gets its own future which completes with the
+ * ResultSet of the batch.
+ * 
+ * Statements of one batch share the write timestamp, so a later write of a
+ * row replaces the queued write of the same row instead of joining the
+ * batch next to it; both callers get the result of the batch. Writes added
+ * after close are sent immediately.
+ */
+public class MicroBatcher {
+
+    private final Session                      session;
+    private final MicroBatchOptions            options;
+    private final ConcurrentMap<Object, Group> groups = new ConcurrentHashMap<Object, Group>();
+    private final ScheduledExecutorService     scheduler;
+
+    public MicroBatcher(Session session, MicroBatchOptions options) {
+        this.session = session;
+        this.options = options;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "mapping-micro-batch");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * Queue the statement into the group of its partition.
+     * 
+     * @param partition identity of the partition and of the batch level
+     *        options, equal for statements which may share a batch
+     * @param stmt write statement
+     * @return future completed when the batch containing the statement
+     *         completes
+     */
+    public ResultSetFuture add(Object partition, Statement stmt) {
+        return add(partition, null, stmt);
+    }
+
+    /**
+     * Queue the statement into the group of its partition, replacing the
+     * queued statement of the same row.
+     * 
+     * @param partition identity of the partition and of the batch level
+     *        options, equal for statements which may share a batch
+     * @param row identity of the row or null. The statement must write the
+     *        complete state of the row to replace an earlier one.
+     * @param stmt write statement
+     * @return future completed when the batch containing the statement
+     *         completes
+     */
+    public ResultSetFuture add(Object partition, Object row, Statement stmt) {
+        SettableResultSetFuture future = new SettableResultSetFuture();
+        while (true) {
+            Group group = groups.get(partition);
+            if (group == null) {
+                group = new Group(partition);
+                Group existing = groups.putIfAbsent(partition, group);
+                if (existing != null) {
+                    group = existing;
+                }
+            }
+
+            List<Item> ready = null;
+            synchronized (group) {
+                if (group.closed) {
+                    continue;
+                }
+                Item queued = row == null ? null : group.rows.get(row);
+                if (queued != null) {
+                    queued.statement = stmt;
+                    queued.futures.add(future);
+                    return future;
+                }
+                Item item = new Item(stmt, future);
+                group.items.add(item);
+                if (row != null) {
+                    group.rows.put(row, item);
+                }
+                if (group.items.size() >= options.getMaxBatchSize()) {
+                    ready = group.close();
+                } else if (group.items.size() == 1) {
+                    final Group scheduled = group;
+                    try {
+                        scheduler.schedule(new Runnable() {
+                            public void run() {
+                                send(scheduled);
+                            }
+                        }, options.getLingerMicros(), TimeUnit.MICROSECONDS);
+                    } catch (RejectedExecutionException e) {
+                        // closed, nothing will send the group later
+                        ready = group.close();
+                    }
+                }
+            }
+            if (ready != null) {
+                send(ready);
+            }
+            return future;
+        }
+    }
+
+    /**
+     * Send all open groups without waiting for the linger.
+     */
+    public void flush() {
+        for (Group group : groups.values()) {
+            send(group);
+        }
+    }
+
+    /**
+     * Send open groups and stop the scheduler.
+     */
+    public void close() {
+        flush();
+        scheduler.shutdown();
+    }
+
+    private void send(Group group) {
+        List<Item> ready;
+        synchronized (group) {
+            if (group.closed) {
+                return;
+            }
+            ready = group.close();
+        }
+        send(ready);
+    }
+
+    private void send(final List<Item> items) {
+        Statement stmt;
+        if (items.size() == 1) {
+            stmt = items.get(0).statement;
+        } else {
+            BatchStatement batch = new BatchStatement(BatchStatement.Type.UNLOGGED);
+            for (Item item : items) {
+                batch.add(item.statement);
+            }
+            Statement first = items.get(0).statement;
+            if (first.getConsistencyLevel() != null) {
+                batch.setConsistencyLevel(first.getConsistencyLevel());
+            }
+            if (first.getRetryPolicy() != null) {
+                batch.setRetryPolicy(first.getRetryPolicy());
+            }
+            stmt = batch;
+        }
+
+        try {
+            Futures.addCallback(session.executeAsync(stmt), new FutureCallback<ResultSet>() {
+                public void onSuccess(ResultSet rs) {
+                    for (Item item : items) {
+                        for (SettableResultSetFuture future : item.futures) {
+                            future.set(rs);
+                        }
+                    }
+                }
+
+                public void onFailure(Throwable t) {
+                    fail(items, t);
+                }
+            }, MoreExecutors.directExecutor());
+        } catch (RuntimeException e) {
+            fail(items, e);
+        }
+    }
+
+    private static void fail(List<Item> items, Throwable t) {
+        for (Item item : items) {
+            for (SettableResultSetFuture future : item.futures) {
+                future.setException(t);
+            }
+        }
+    }
+
+    private class Group {
+        final Object     partition;
+        final List<Item> items = new ArrayList<Item>();
+        // queued item by row, for writes which replace earlier ones
+        final Map<Object, Item> rows = new HashMap<Object, Item>();
+        boolean          closed;
+
+        Group(Object partition) {
+            this.partition = partition;
+        }
+
+        /** Called holding the lock: detach the group so new writes open a new one. */
+        List<Item> close() {
+            closed = true;
+            groups.remove(partition, this);
+            return items;
+        }
+    }
+
+    private static class Item {
+        // guarded by the lock of the group until the group is closed
+        Statement                           statement;
+        final List<SettableResultSetFuture> futures = new ArrayList<SettableResultSetFuture>(1);
+
+        Item(Statement statement, SettableResultSetFuture future) {
+            this.statement = statement;
+            this.futures.add(future);
+        }
+    }
+}
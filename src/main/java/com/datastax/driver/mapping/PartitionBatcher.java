@@ -0,0 +1,232 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Statement;
+
+/**
+ * Groups write statements by partition and splits the groups into batches
+ * bounded by number of statements and estimated size.
+ * 
+ * UNLOGGED and COUNTER batches are only efficient when all statements
+ * belong to one partition: the batch is then routed to a replica of that
+ * partition, by the routing key of its first bound statement, and applied
+ * as one mutation. Statements of the same row are never split apart, so
+ * their relative order is decided within one batch. LOGGED batches are kept
+ * in one group to preserve atomicity and are never split.
+ */
+public class PartitionBatcher {
+
+    private PartitionBatcher() {
+    }
+
+    /** Statement with its partition, row and estimated size. */
+    public static class Entry {
+        private final Statement statement;
+        private final Object    partition;
+        private final Object    row;
+        private final int       size;
+
+        /**
+         * @param statement write statement
+         * @param partition identity of the partition, equal for statements of
+         *        the same partition of the same table
+         * @param size estimated serialized size in bytes
+         */
+        public Entry(Statement statement, Object partition, int size) {
+            this(statement, partition, null, size);
+        }
+
+        /**
+         * @param statement write statement
+         * @param partition identity of the partition, equal for statements of
+         *        the same partition of the same table
+         * @param row identity of the row, statements of the same row are kept
+         *        in the same batch. Null if the statement is the only one
+         *        for its row.
+         * @param size estimated serialized size in bytes
+         */
+        public Entry(Statement statement, Object partition, Object row, int size) {
+            this.statement = statement;
+            this.partition = partition;
+            this.row = row;
+            this.size = size;
+        }
+
+        public Statement getStatement() {
+            return statement;
+        }
+
+        public Object getPartition() {
+            return partition;
+        }
+
+        public Object getRow() {
+            return row;
+        }
+
+        public int getSize() {
+            return size;
+        }
+    }
+
+    /**
+     * Build statements to execute for the entries.
+     * 
+     * @param entries statements in order they were added
+     * @param type batch type
+     * @param maxStatements max statements per batch, -1 for no limit
+     * @param maxSizeBytes max estimated size per batch, -1 for no limit
+     * @return batches, or single statements where a group has only one
+     *         statement and the type is not LOGGED
+     * @throws IllegalArgumentException if LOGGED batch exceeds the limits
+     */
+    public static List<Statement> split(List<Entry> entries, BatchStatement.Type type, int maxStatements, int maxSizeBytes) {
+        List<Statement> result = new ArrayList<Statement>();
+        for (List<Statement> partition : splitByPartition(entries, type, maxStatements, maxSizeBytes)) {
+            result.addAll(partition);
+        }
+        return result;
+    }
+
+    /**
+     * Build statements to execute for the entries grouped by partition.
+     * Statements of one partition must be executed one after another in the
+     * returned order, different partitions may be executed concurrently.
+     * 
+     * @param entries statements in order they were added
+     * @param type batch type
+     * @param maxStatements max statements per batch, -1 for no limit
+     * @param maxSizeBytes max estimated size per batch, -1 for no limit
+     * @return statements of each partition
+     * @throws IllegalArgumentException if LOGGED batch exceeds the limits
+     */
+    public static List<List<Statement>> splitByPartition(List<Entry> entries, BatchStatement.Type type, int maxStatements, int maxSizeBytes) {
+        List<List<Statement>> result = new ArrayList<List<Statement>>();
+        if (type == BatchStatement.Type.LOGGED) {
+            int size = 0;
+            for (Entry entry : entries) {
+                size += entry.getSize();
+            }
+            if ((maxStatements > 0 && entries.size() > maxStatements) || (maxSizeBytes > 0 && entries.size() > 1 && size > maxSizeBytes)) {
+                throw new IllegalArgumentException("LOGGED batch of " + entries.size() + " statements and ~" + size
+                        + " bytes exceeds the limits and can not be split without losing atomicity, use UNLOGGED batch or raise the limits");
+            }
+            if (!entries.isEmpty()) {
+                List<Statement> all = new ArrayList<Statement>(1);
+                all.add(toStatement(entries, type));
+                result.add(all);
+            }
+            return result;
+        }
+
+        Map<Object, List<Entry>> byPartition = new LinkedHashMap<Object, List<Entry>>();
+        for (Entry entry : entries) {
+            List<Entry> group = byPartition.get(entry.getPartition());
+            if (group == null) {
+                group = new ArrayList<Entry>();
+                byPartition.put(entry.getPartition(), group);
+            }
+            group.add(entry);
+        }
+
+        for (List<Entry> group : byPartition.values()) {
+            List<Statement> statements = new ArrayList<Statement>();
+            List<Entry> chunk = new ArrayList<Entry>();
+            int chunkSize = 0;
+            for (List<Entry> row : byRow(group)) {
+                int rowSize = 0;
+                for (Entry entry : row) {
+                    rowSize += entry.getSize();
+                }
+                boolean full = (maxStatements > 0 && chunk.size() + row.size() > maxStatements)
+                        || (maxSizeBytes > 0 && chunkSize + rowSize > maxSizeBytes);
+                if (full && !chunk.isEmpty()) {
+                    statements.add(toStatement(chunk, type));
+                    chunk = new ArrayList<Entry>();
+                    chunkSize = 0;
+                }
+                chunk.addAll(row);
+                chunkSize += rowSize;
+            }
+            if (!chunk.isEmpty()) {
+                statements.add(toStatement(chunk, type));
+            }
+            result.add(statements);
+        }
+        return result;
+    }
+
+    /**
+     * Statements of the partition grouped by row, rows in order of the first
+     * statement, statements of a row in order they were added.
+     */
+    private static Collection<List<Entry>> byRow(List<Entry> group) {
+        List<List<Entry>> rows = new ArrayList<List<Entry>>();
+        Map<Object, List<Entry>> byRow = new HashMap<Object, List<Entry>>();
+        for (Entry entry : group) {
+            List<Entry> row = entry.getRow() == null ? null : byRow.get(entry.getRow());
+            if (row == null) {
+                row = new ArrayList<Entry>();
+                rows.add(row);
+                if (entry.getRow() != null) {
+                    byRow.put(entry.getRow(), row);
+                }
+            }
+            row.add(entry);
+        }
+        return rows;
+    }
+
+    private static Statement toStatement(List<Entry> chunk, BatchStatement.Type type) {
+        if (chunk.size() == 1 && type != BatchStatement.Type.LOGGED) {
+            return chunk.get(0).getStatement();
+        }
+        BatchStatement batch = new BatchStatement(type);
+        for (Entry entry : chunk) {
+            batch.add(entry.getStatement());
+        }
+        return batch;
+    }
+
+    /**
+     * Estimate serialized size of the statement: bound values for
+     * BoundStatement, query string for any other statement.
+     */
+    public static int estimateSize(Statement stmt) {
+        if (stmt instanceof BoundStatement) {
+            BoundStatement bs = (BoundStatement) stmt;
+            int size = 16;
+            int count = bs.preparedStatement().getVariables().size();
+            for (int i = 0; i < count; i++) {
+                ByteBuffer value = bs.getBytesUnsafe(i);
+                size += 4 + (value == null ? 0 : value.remaining());
+            }
+            return size;
+        }
+        return stmt.toString().length();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+/**
+ * Outcome of a save. For @Version entities the write is conditional and may
+ * be rejected; the row returned by Cassandra for the rejected condition is
+ * mapped into current.
+ */
+public class SaveResult<E> {
+    private final boolean applied;
+    private final E       entity;
+    private final E       current;
+
+    public SaveResult(boolean applied, E entity, E current) {
+        this.applied = applied;
+        this.entity = entity;
+        this.current = current;
+    }
+
+    /**
+     * @return true if the write was applied, always true for entities
+     *         without @Version
+     */
+    public boolean isApplied() {
+        return applied;
+    }
+
+    /**
+     * @return the saved entity. If the write was not applied its @Version
+     *         field is restored to the value before the save.
+     */
+    public E getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return the server row which made the condition fail, or null if the
+     *         write was applied. For a new entity (IF NOT EXISTS) it is the
+     *         whole existing row, for an update (IF version = ?) only the
+     *         current @Version is populated.
+     */
+    public E getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.exceptions.DriverException;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * ResultSetFuture completed by the mapper rather than by the driver, used
+ * when one logical operation is executed as several statements.
+ */
+public class SettableResultSetFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+    @Override
+    public boolean set(ResultSet value) {
+        return super.set(value);
+    }
+
+    @Override
+    public boolean setException(Throwable throwable) {
+        return super.setException(throwable);
+    }
+
+    @Override
+    public boolean setFuture(ListenableFuture<? extends ResultSet> future) {
+        return super.setFuture(future);
+    }
+
+    public ResultSet getUninterruptibly() {
+        try {
+            return Uninterruptibles.getUninterruptibly(this);
+        } catch (ExecutionException e) {
+            throw propagate(e);
+        }
+    }
+
+    public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+        try {
+            return Uninterruptibles.getUninterruptibly(this, timeout, unit);
+        } catch (ExecutionException e) {
+            throw propagate(e);
+        }
+    }
+
+    private static RuntimeException propagate(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof DriverException) {
+            return (DriverException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new RuntimeException(cause);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.policies.RetryPolicy;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Coalesces concurrent identical reads into one in-flight query. The first
+ * caller for a key executes the query, all callers arriving while it is in
+ * flight receive the same rows. The key is released as soon as the query
+ * completes, so results are never cached beyond the lifetime of the query.
+ *
+ * Rows are shared between callers and must be treated as read-only; each
+ * caller is expected to map them into its own entity instance.
+ */
+public class SingleFlight {
+
+    private static final Function<ResultSet, List<Row>> ALL_ROWS = new Function<ResultSet, List<Row>>() {
+        public List<Row> apply(ResultSet rs) {
+            return rs.all();
+        }
+    };
+
+    private final ConcurrentMap<Key, ListenableFuture<List<Row>>> inflight = new ConcurrentHashMap<Key, ListenableFuture<List<Row>>>();
+
+    /**
+     * Join the in-flight query for the key or start a new one.
+     *
+     * @param key identifies the query
+     * @param query invoked only by the caller which starts the query
+     * @return future of the rows shared by all callers of the key
+     */
+    public ListenableFuture<List<Row>> fetch(final Key key, Callable<ResultSetFuture> query) {
+        ListenableFuture<List<Row>> existing = inflight.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        final SettableFuture<List<Row>> promise = SettableFuture.create();
+        existing = inflight.putIfAbsent(key, promise);
+        if (existing != null) {
+            return existing;
+        }
+
+        promise.addListener(new Runnable() {
+            public void run() {
+                inflight.remove(key, promise);
+            }
+        }, MoreExecutors.directExecutor());
+
+        try {
+            ResultSetFuture f = query.call();
+            if (f == null) {
+                promise.set(null);
+            } else {
+                Futures.addCallback(Futures.transform(f, ALL_ROWS, MoreExecutors.directExecutor()), new FutureCallback<List<Row>>() {
+                    public void onSuccess(List<Row> rows) {
+                        promise.set(rows);
+                    }
+
+                    public void onFailure(Throwable t) {
+                        promise.setException(t);
+                    }
+                }, MoreExecutors.directExecutor());
+            }
+        } catch (Throwable t) {
+            promise.setException(t);
+        }
+        return promise;
+    }
+
+    /**
+     * @return number of queries currently in flight
+     */
+    public int size() {
+        return inflight.size();
+    }
+
+    /** Identity of the coalesced query: entity, primary key and read options. */
+    public static class Key {
+        private final String           keyspace;
+        private final Class<?>         clazz;
+        private final Object           id;
+        private final ConsistencyLevel consistencyLevel;
+        private final RetryPolicy      retryPolicy;
+        private final int              hash;
+
+        public Key(String keyspace, Class<?> clazz, Object id, ConsistencyLevel consistencyLevel) {
+            this(keyspace, clazz, id, consistencyLevel, null);
+        }
+
+        public Key(String keyspace, Class<?> clazz, Object id, ConsistencyLevel consistencyLevel, RetryPolicy retryPolicy) {
+            this.keyspace = keyspace;
+            this.clazz = clazz;
+            this.id = id;
+            this.consistencyLevel = consistencyLevel;
+            this.retryPolicy = retryPolicy;
+            int h = clazz.hashCode();
+            h = 31 * h + (keyspace == null ? 0 : keyspace.hashCode());
+            h = 31 * h + (id == null ? 0 : id.hashCode());
+            h = 31 * h + (consistencyLevel == null ? 0 : consistencyLevel.hashCode());
+            h = 31 * h + (retryPolicy == null ? 0 : retryPolicy.hashCode());
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return clazz == other.clazz
+                && consistencyLevel == other.consistencyLevel
+                && (retryPolicy == null ? other.retryPolicy == null : retryPolicy.equals(other.retryPolicy))
+                && (keyspace == null ? other.keyspace == null : keyspace.equals(other.keyspace))
+                && (id == null ? other.id == null : id.equals(other.id));
+        }
+    }
+}
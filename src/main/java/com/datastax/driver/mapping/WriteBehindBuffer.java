@@ -0,0 +1,345 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.ResultSetFuture;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.mapping.builder.MappingBuilder;
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.option.WriteBehindOptions;
+import com.datastax.driver.mapping.option.WriteOptions;
+import com.google.common.base.Function;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * Buffer of pending saves of one entity class keyed by primary key values.
+ * A save of a key already in the buffer replaces the pending one, so only
+ * the last state of each row is written. The buffer is flushed on interval,
+ * when it reaches maxBuffered entities and on close, using unlogged batches
+ * grouped by partition.
+ * 
+ * Entities are held by reference until flushed and must not be modified
+ * after save. An entity stays in the buffer until its write completed, so
+ * writes which fail are retried on the next flush unless a newer save or a
+ * delete of the same key arrived meanwhile. While a key is being written
+ * discard and flush of the key wait for the write, so a delete is never
+ * overtaken by the write of an older buffered state.
+ */
+public class WriteBehindBuffer {
+    private static final Logger log = Logger.getLogger(WriteBehindBuffer.class.getName());
+
+    private final MappingSession                       m;
+    private final Class<?>                             clazz;
+    private final WriteBehindOptions                   options;
+    private final ScheduledExecutorService             scheduler;
+    private final ConcurrentMap<List<Object>, Pending> pending        = new ConcurrentHashMap<List<Object>, Pending>();
+    // keys being written, guarded by claimLock together with removal from pending
+    private final Map<List<Object>, SettableFuture<Void>> inflight    = new HashMap<List<Object>, SettableFuture<Void>>();
+    private final Object                               claimLock      = new Object();
+    private final AtomicBoolean                        flushRequested = new AtomicBoolean();
+    private final WriteBehindMetrics                   metrics        = new WriteBehindMetrics();
+    private final ScheduledFuture<?>                   task;
+
+    WriteBehindBuffer(MappingSession m, Class<?> clazz, WriteBehindOptions options, ScheduledExecutorService scheduler) {
+        this.m = m;
+        this.clazz = clazz;
+        this.options = options;
+        this.scheduler = scheduler;
+        this.task = scheduler.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                flushQuietly();
+            }
+        }, options.getFlushIntervalMillis(), options.getFlushIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffer the entity replacing pending save of the same primary key.
+     */
+    public void save(Object entity, WriteOptions writeOptions) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        List<Object> key = entityMetadata.getEntityPKValues(entity);
+        if (key.contains(null)) {
+            // key is generated on write, nothing to coalesce with
+            key = Collections.singletonList(new Object());
+        }
+        metrics.saves.incrementAndGet();
+        if (pending.put(key, new Pending(key, entity, writeOptions)) != null) {
+            metrics.coalesced.incrementAndGet();
+        }
+        if (pending.size() >= options.getMaxBuffered() && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(new Runnable() {
+                public void run() {
+                    flushRequested.set(false);
+                    flushQuietly();
+                }
+            });
+        }
+    }
+
+    /**
+     * Drop pending save of the primary key, called before the row is deleted
+     * or overwritten directly. If the key is being written waits for the
+     * write to complete.
+     */
+    public void discard(List<Object> key) {
+        SettableFuture<Void> writing;
+        synchronized (claimLock) {
+            pending.remove(key);
+            writing = inflight.get(key);
+        }
+        awaitQuietly(writing);
+    }
+
+    /**
+     * Write pending save of the primary key and wait for the write to
+     * complete, called before the row is modified directly.
+     */
+    public void flush(List<Object> key) {
+        Pending p;
+        SettableFuture<Void> marker = SettableFuture.create();
+        while (true) {
+            SettableFuture<Void> writing;
+            synchronized (claimLock) {
+                writing = inflight.get(key);
+                if (writing == null) {
+                    p = pending.get(key);
+                    if (p == null) {
+                        return;
+                    }
+                    inflight.put(key, marker);
+                    break;
+                }
+            }
+            awaitQuietly(writing);
+        }
+
+        boolean written = false;
+        try {
+            m.maybeSync(clazz);
+            BoundStatement bs = MappingBuilder.prepareBoundSave(p.entity, p.writeOptions, m.keyspace, m.session);
+            m.session.execute(bs);
+            written = true;
+        } finally {
+            release(p, marker, written);
+        }
+        metrics.written.incrementAndGet();
+        metrics.batches.incrementAndGet();
+    }
+
+    /**
+     * @return number of entities waiting to be written
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    public WriteBehindMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Write all pending entities and wait for the writes to complete.
+     * 
+     * @return number of entities written
+     */
+    public int flush() {
+        return Futures.getUnchecked(flushAsync());
+    }
+
+    /**
+     * Write all pending entities without waiting. Each written batch releases
+     * its keys from a callback, so a slow table does not hold the flushing
+     * thread.
+     * 
+     * @return number of entities written, completes once the writes and the
+     *         writes of keys flushed elsewhere meanwhile completed
+     */
+    public ListenableFuture<Integer> flushAsync() {
+        final long start = System.currentTimeMillis();
+        List<PartitionBatcher.Entry> entries = new ArrayList<PartitionBatcher.Entry>();
+        Map<Statement, Pending> sources = new IdentityHashMap<Statement, Pending>();
+        Map<Pending, SettableFuture<Void>> claimed = new IdentityHashMap<Pending, SettableFuture<Void>>();
+        List<ListenableFuture<Void>> writing = new ArrayList<ListenableFuture<Void>>();
+        final AtomicInteger written = new AtomicInteger();
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        m.maybeSync(clazz);
+
+        synchronized (claimLock) {
+            for (Pending p : pending.values()) {
+                SettableFuture<Void> other = inflight.get(p.key);
+                if (other == null) {
+                    other = SettableFuture.create();
+                    inflight.put(p.key, other);
+                    claimed.put(p, other);
+                }
+                // own claims are completed by release, others by their writer
+                writing.add(other);
+            }
+        }
+
+        try {
+            Iterator<Map.Entry<Pending, SettableFuture<Void>>> claims = claimed.entrySet().iterator();
+            while (claims.hasNext()) {
+                Map.Entry<Pending, SettableFuture<Void>> claim = claims.next();
+                Pending p = claim.getKey();
+                BoundStatement bs;
+                List<Object> partition;
+                try {
+                    bs = MappingBuilder.prepareBoundSave(p.entity, p.writeOptions, m.keyspace, m.session);
+                    partition = new ArrayList<Object>(entityMetadata.getEntityPartitionKeyValues(p.entity));
+                } catch (RuntimeException e) {
+                    log.log(Level.WARNING, "Write-behind entity " + p.entity + " can not be saved and is dropped", e);
+                    metrics.failed.incrementAndGet();
+                    claims.remove();
+                    release(p, claim.getValue(), true);
+                    continue;
+                }
+                entries.add(new PartitionBatcher.Entry(bs, partition, PartitionBatcher.estimateSize(bs)));
+                sources.put(bs, p);
+            }
+
+            List<Statement> statements = PartitionBatcher.split(entries, BatchStatement.Type.UNLOGGED, options.getMaxBatchStatements(), options.getMaxBatchSizeBytes());
+            for (Statement stmt : statements) {
+                final List<Pending> flushed = new ArrayList<Pending>();
+                if (stmt instanceof BatchStatement) {
+                    for (Statement st : ((BatchStatement) stmt).getStatements()) {
+                        flushed.add(sources.get(st));
+                    }
+                } else {
+                    flushed.add(sources.get(stmt));
+                }
+                final List<SettableFuture<Void>> markers = new ArrayList<SettableFuture<Void>>(flushed.size());
+                for (Pending p : flushed) {
+                    markers.add(claimed.get(p));
+                }
+
+                ResultSetFuture future = m.session.executeAsync(stmt);
+                // the callback releases the keys from now on
+                for (Pending p : flushed) {
+                    claimed.remove(p);
+                }
+                metrics.batches.incrementAndGet();
+                Futures.addCallback(future, new FutureCallback<ResultSet>() {
+                    public void onSuccess(ResultSet rs) {
+                        written.addAndGet(flushed.size());
+                        metrics.written.addAndGet(flushed.size());
+                        releaseAll(flushed, markers, true);
+                    }
+
+                    public void onFailure(Throwable t) {
+                        log.log(Level.WARNING, "Write-behind flush of " + clazz.getName() + " failed, " + flushed.size() + " entities kept in buffer", t);
+                        metrics.failed.addAndGet(flushed.size());
+                        releaseAll(flushed, markers, false);
+                    }
+                }, MoreExecutors.directExecutor());
+            }
+        } finally {
+            // claims not handed to a write, e.g. when batching or submit threw,
+            // stay in the buffer for the next flush
+            for (Map.Entry<Pending, SettableFuture<Void>> claim : claimed.entrySet()) {
+                release(claim.getKey(), claim.getValue(), false);
+            }
+        }
+
+        return Futures.transform(Futures.allAsList(writing), new Function<List<Void>, Integer>() {
+            public Integer apply(List<Void> input) {
+                metrics.flushes.incrementAndGet();
+                metrics.lastFlushMillis = System.currentTimeMillis() - start;
+                return written.get();
+            }
+        }, MoreExecutors.directExecutor());
+    }
+
+    private void releaseAll(List<Pending> flushed, List<SettableFuture<Void>> markers, boolean done) {
+        for (int i = 0; i < flushed.size(); i++) {
+            release(flushed.get(i), markers.get(i), done);
+        }
+    }
+
+    /**
+     * End the write of the pending entity. A written entity leaves the buffer
+     * unless replaced by a newer save meanwhile, a failed one stays for the
+     * next flush unless discarded meanwhile.
+     */
+    private void release(Pending p, SettableFuture<Void> marker, boolean done) {
+        synchronized (claimLock) {
+            if (done) {
+                pending.remove(p.key, p);
+            }
+            inflight.remove(p.key);
+        }
+        marker.set(null);
+    }
+
+    private static void awaitQuietly(SettableFuture<Void> writing) {
+        if (writing != null) {
+            // markers are only completed with set(null)
+            Futures.getUnchecked(writing);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flushAsync();
+        } catch (RuntimeException e) {
+            log.log(Level.WARNING, "Write-behind flush of " + clazz.getName() + " failed", e);
+        }
+    }
+
+    /**
+     * Stop background flushes and write pending entities.
+     */
+    public void close() {
+        task.cancel(false);
+        flush();
+    }
+
+    private static class Pending {
+        final List<Object> key;
+        final Object       entity;
+        final WriteOptions writeOptions;
+
+        Pending(List<Object> key, Object entity, WriteOptions writeOptions) {
+            this.key = key;
+            this.entity = entity;
+            this.writeOptions = writeOptions;
+        }
+    }
+}
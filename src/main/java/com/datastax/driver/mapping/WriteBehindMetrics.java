@@ -0,0 +1,89 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters of a write-behind buffer. Values are cumulative since the buffer
+ * was enabled.
+ */
+public class WriteBehindMetrics {
+    final AtomicLong saves     = new AtomicLong();
+    final AtomicLong coalesced = new AtomicLong();
+    final AtomicLong written   = new AtomicLong();
+    final AtomicLong failed    = new AtomicLong();
+    final AtomicLong flushes   = new AtomicLong();
+    final AtomicLong batches   = new AtomicLong();
+    volatile long    lastFlushMillis;
+
+    /**
+     * @return number of save calls accepted into the buffer
+     */
+    public long getSaves() {
+        return saves.get();
+    }
+
+    /**
+     * @return number of saves replaced by a later save of the same primary
+     *         key before they were written
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return number of entities written to Cassandra
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return number of entity writes which failed and were returned to the
+     *         buffer
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return number of completed flushes
+     */
+    public long getFlushes() {
+        return flushes.get();
+    }
+
+    /**
+     * @return number of statements executed, batches or single writes
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * @return duration of the last flush in milliseconds
+     */
+    public long getLastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "WriteBehindMetrics [saves=" + getSaves() + ", coalesced=" + getCoalesced() + ", written=" + getWritten() + ", failed=" + getFailed()
+                + ", flushes=" + getFlushes() + ", batches=" + getBatches() + ", lastFlushMillis=" + lastFlushMillis + "]";
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * How @Version of the entity is enforced.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Versioning {
+
+    enum Strategy {
+        /**
+         * Conditional write IF NOT EXISTS / IF version = ?, a Paxos round per
+         * save. A stale save is rejected.
+         */
+        LWT,
+
+        /**
+         * Write USING TIMESTAMP equal to the new version, no condition. The
+         * highest version wins at the storage layer. Delete of the entity is
+         * stamped with the next version, so an entity re-created with the
+         * same primary key must continue from a higher version: starting
+         * again from 1 it stays shadowed by the tombstone. Deletes by id or
+         * range and property updates, deletes and removals have no version
+         * to be stamped with, they require a timestamp on the version scale
+         * in WriteOptions and throw IllegalArgumentException otherwise.
+         */
+        WRITE_TIMESTAMP,
+
+        /**
+         * Write USING TIMESTAMP of a hybrid logical clock: the new version is
+         * max(current time in microseconds, old version + 1). Versions stay
+         * monotonic per entity and comparable with regular write timestamps.
+         * This is last writer wins, not highest version wins: a stale copy
+         * saved later gets a newer timestamp and overwrites the row.
+         */
+        HYBRID_CLOCK
+    }
+
+    /**
+     * (Optional) strategy, defaults to LWT.
+     */
+    Strategy value() default Strategy.LWT;
+}
@@ -0,0 +1,40 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Map BLOB column into ByteBuffer without copying the bytes.
+ * <p>
+ * The value is a read-only view over the bytes received with the Row. 
+ * Ownership rules:
+ * <ul>
+ * <li>the view can not be modified, copy it if you need a writable buffer.</li>
+ * <li>the view shares the memory with the Row. While the entity holds the view
+ * the whole column value stays reachable, copy the bytes you need if the
+ * entity is kept long after the read.</li>
+ * <li>position and limit of the view are independent, reading it does not
+ * affect other views of the same value.</li>
+ * </ul>
+ * Placed on the class applies to all ByteBuffer properties of the entity.
+ */
+@Target({ElementType.FIELD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ZeroCopy {}
@@ -17,11 +17,15 @@ package com.datastax.driver.mapping.builder;
 
 import com.datastax.driver.core.*;
 import com.datastax.driver.core.querybuilder.*;
+import com.datastax.driver.core.utils.UUIDs;
 import com.datastax.driver.mapping.EntityTypeParser;
+import com.datastax.driver.mapping.annotation.Versioning;
 import com.datastax.driver.mapping.meta.EntityFieldMetaData;
 import com.datastax.driver.mapping.meta.EntityTypeMetadata;
 import com.datastax.driver.mapping.meta.PrimaryKeyMetadata;
+import com.datastax.driver.mapping.option.Parallelism;
 import com.datastax.driver.mapping.option.ReadOptions;
+import com.datastax.driver.mapping.option.SliceOptions;
 import com.datastax.driver.mapping.option.WriteOptions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
@@ -29,9 +33,12 @@ import com.google.common.cache.CacheBuilder;
 import sun.reflect.generics.repository.FieldRepository;
 
 import java.lang.reflect.ParameterizedType;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Logger;
 
@@ -75,7 +82,7 @@ public class MappingBuilder {
         Class<?> clazz = entity.getClass();
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
         long version = Long.MIN_VALUE;
-        if (entityMetadata.hasVersion()) {
+        if (entityMetadata.hasConditionalVersion()) {
             EntityFieldMetaData verField = entityMetadata.getVersionField();
             version = ((Long) verField.getValue(entity)).longValue();
         }
@@ -89,6 +96,245 @@ public class MappingBuilder {
         return stmt;
     }
 
+    /**
+     * Prepared counterpart of prepareSave. Values, TTL and timestamp are bound
+     * to a statement prepared once per shape, autogenerated UUIDs are
+     * generated on the client.
+     */
+    public static <E> BoundStatement prepareBoundSave(E entity, WriteOptions options, String keyspace, Session session) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
+        long version = Long.MIN_VALUE;
+        if (entityMetadata.hasConditionalVersion()) {
+            EntityFieldMetaData verField = entityMetadata.getVersionField();
+            version = ((Long) verField.getValue(entity)).longValue();
+        }
+
+        BoundStatement bs;
+        if (version > 0) {
+            bs = prepareBoundUpdate(entity, entityMetadata, options, keyspace, session);
+        } else {
+            bs = prepareBoundInsert(entity, entityMetadata, options, keyspace, session);
+        }
+        applyOptions(options, bs);
+        return bs;
+    }
+
+    private static <E> BoundStatement prepareBoundInsert(E entity, final EntityTypeMetadata entityMetadata, WriteOptions options, final String keyspace, final Session session) {
+        options = stampVersion(entity, entityMetadata, options);
+        final List<EntityFieldMetaData> fields = entityMetadata.getFields();
+        Object[] pkVals = new Object[entityMetadata.getPkColumnCount()];
+        entityMetadata.writeEntityPKValues(entity, pkVals, 0);
+        final int ttl = getTtl(options, entityMetadata);
+        final boolean withTimestamp = options != null && options.getTimestamp() != -1;
+
+        EntityFieldMetaData verField = null;
+        Object newVersion = null;
+        if (entityMetadata.hasConditionalVersion()) {
+            verField = entityMetadata.getVersionField();
+            newVersion = incVersion(verField.getValue(entity));
+            verField.setValue(entity, newVersion);
+        }
+
+        List<Object> values = new ArrayList<Object>(fields.size() + 2);
+        for (EntityFieldMetaData f : fields) {
+            String colName = f.getColumnName();
+            int idx = entityMetadata.getPkPosition(colName);
+            Object colVal;
+            if (f.equals(verField)) {
+                colVal = newVersion;
+            } else if (idx >= 0) {
+                colVal = pkVals[idx];
+                if (colVal == null && f.isAutoGenerate()) {
+                    if (f.getDataType() == DataType.Name.TIMEUUID) {
+                        colVal = UUIDs.timeBased();
+                    } else if (f.getDataType() == DataType.Name.UUID) {
+                        colVal = UUID.randomUUID();
+                    }
+                }
+            } else {
+                colVal = f.getValue(entity);
+            }
+            values.add(colVal);
+        }
+        if (ttl > -1) {
+            values.add(ttl);
+        }
+        if (withTimestamp) {
+            values.add(options.getTimestamp());
+        }
+
+        final boolean ifNotExists = verField != null;
+        String shape = entityMetadata.getTableName() + "|insert|" + ifNotExists + "|" + (ttl > -1) + "|" + withTimestamp + "|";
+        PreparedStatement ps;
+        try {
+            ps = statementCache.get(getSelectCacheKey(shape, session, fields), new Callable<PreparedStatement>() {
+                public PreparedStatement call() throws Exception {
+                    return session.prepare(buildBoundInsert(entityMetadata, ifNotExists, ttl > -1, withTimestamp, keyspace));
+                }
+            });
+        } catch (ExecutionException e) {
+            ps = session.prepare(buildBoundInsert(entityMetadata, ifNotExists, ttl > -1, withTimestamp, keyspace));
+        }
+        return ps.bind(values.toArray());
+    }
+
+    private static Insert buildBoundInsert(EntityTypeMetadata entityMetadata, boolean ifNotExists, boolean withTtl, boolean withTimestamp, String keyspace) {
+        Insert insert = insertInto(keyspace, entityMetadata.getTableName());
+        for (EntityFieldMetaData f : entityMetadata.getFields()) {
+            insert.value(f.getColumnName(), bindMarker());
+        }
+        if (ifNotExists) {
+            insert.ifNotExists();
+        }
+        if (withTtl) {
+            insert.using(ttl(bindMarker()));
+        }
+        if (withTimestamp) {
+            insert.using(timestamp(bindMarker()));
+        }
+        return insert;
+    }
+
+    private static <E> BoundStatement prepareBoundUpdate(E entity, final EntityTypeMetadata entityMetadata, WriteOptions options, final String keyspace, final Session session) {
+        options = stampVersion(entity, entityMetadata, options);
+        final List<EntityFieldMetaData> fields = entityMetadata.getFields();
+        Object[] pkVals = new Object[entityMetadata.getPkColumnCount()];
+        entityMetadata.writeEntityPKValues(entity, pkVals, 0);
+        final int ttl = getTtl(options, entityMetadata);
+        final boolean withTimestamp = options != null && options.getTimestamp() != -1;
+
+        // USING is rendered before SET, bind values follow the query string
+        List<Object> values = new ArrayList<Object>(fields.size() + 3);
+        if (ttl > -1) {
+            values.add(ttl);
+        }
+        if (withTimestamp) {
+            values.add(options.getTimestamp());
+        }
+
+        EntityFieldMetaData verField = null;
+        Object oldVersion = null;
+        Object newVersion = null;
+        if (entityMetadata.hasConditionalVersion()) {
+            verField = entityMetadata.getVersionField();
+            oldVersion = verField.getValue(entity);
+            newVersion = incVersion(oldVersion);
+            verField.setValue(entity, newVersion);
+        }
+
+        for (EntityFieldMetaData f : fields) {
+            if (entityMetadata.getPkPosition(f.getColumnName()) < 0) {
+                values.add(f.equals(verField) ? newVersion : f.getValue(entity));
+            }
+        }
+        for (EntityFieldMetaData f : fields) {
+            int idx = entityMetadata.getPkPosition(f.getColumnName());
+            if (idx >= 0) {
+                values.add(pkVals[idx]);
+            }
+        }
+        if (verField != null) {
+            values.add(oldVersion);
+        }
+
+        final String versionCol = verField == null ? null : verField.getColumnName();
+        String shape = entityMetadata.getTableName() + "|update|" + versionCol + "|" + (ttl > -1) + "|" + withTimestamp + "|";
+        PreparedStatement ps;
+        try {
+            ps = statementCache.get(getSelectCacheKey(shape, session, fields), new Callable<PreparedStatement>() {
+                public PreparedStatement call() throws Exception {
+                    return session.prepare(buildBoundUpdate(entityMetadata, versionCol, ttl > -1, withTimestamp, keyspace));
+                }
+            });
+        } catch (ExecutionException e) {
+            ps = session.prepare(buildBoundUpdate(entityMetadata, versionCol, ttl > -1, withTimestamp, keyspace));
+        }
+        return ps.bind(values.toArray());
+    }
+
+    private static Update buildBoundUpdate(EntityTypeMetadata entityMetadata, String versionCol, boolean withTtl, boolean withTimestamp, String keyspace) {
+        Update update = QueryBuilder.update(keyspace, entityMetadata.getTableName());
+        for (EntityFieldMetaData f : entityMetadata.getFields()) {
+            if (entityMetadata.getPkPosition(f.getColumnName()) < 0) {
+                update.with(set(f.getColumnName(), bindMarker()));
+            }
+        }
+        for (EntityFieldMetaData f : entityMetadata.getFields()) {
+            if (entityMetadata.getPkPosition(f.getColumnName()) >= 0) {
+                update.where(eq(f.getColumnName(), bindMarker()));
+            }
+        }
+        if (versionCol != null) {
+            update.onlyIf(eq(versionCol, bindMarker()));
+        }
+        if (withTtl) {
+            update.using(ttl(bindMarker()));
+        }
+        if (withTimestamp) {
+            update.using(timestamp(bindMarker()));
+        }
+        return update;
+    }
+
+    /**
+     * Apply consistency level and retry policy of WriteOptions to the bound
+     * statement.
+     */
+    public static void applyOptions(WriteOptions options, BoundStatement bs) {
+        if (options != null) {
+            if (options.getConsistencyLevel() != null) {
+                bs.setConsistencyLevel(options.getConsistencyLevel());
+            }
+
+            if (options.getRetryPolicy() != null) {
+                bs.setRetryPolicy(options.getRetryPolicy());
+            }
+        }
+    }
+
+    /**
+     * Prepared counterpart of buildDelete: delete the row of the entity.
+     */
+    public static <E> BoundStatement prepareBoundDelete(E entity, final String keyspace, final Session session) {
+        final EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
+        final List<String> pkCols = entityMetadata.getPkColumns();
+        WriteOptions stamped = stampVersion(entity, entityMetadata, null);
+        final boolean withTimestamp = stamped != null;
+        PreparedStatement ps;
+        try {
+            ps = statementCache.get(getCacheKey(entityMetadata.getTableName() + "|delete|" + withTimestamp, session), new Callable<PreparedStatement>() {
+                public PreparedStatement call() throws Exception {
+                    return session.prepare(buildBoundDelete(entityMetadata, pkCols, withTimestamp, keyspace));
+                }
+            });
+        } catch (ExecutionException e) {
+            ps = session.prepare(buildBoundDelete(entityMetadata, pkCols, withTimestamp, keyspace));
+        }
+        int offset = withTimestamp ? 1 : 0;
+        Object[] values = new Object[offset + pkCols.size()];
+        if (withTimestamp) {
+            values[0] = stamped.getTimestamp();
+        }
+        entityMetadata.writeEntityPKValues(entity, values, offset);
+        return ps.bind(values);
+    }
+
+    private static Delete buildBoundDelete(EntityTypeMetadata entityMetadata, List<String> pkCols, boolean withTimestamp, String keyspace) {
+        Delete delete = buildDelete(entityMetadata, pkCols, bindMarkers(pkCols.size()), keyspace);
+        if (withTimestamp) {
+            delete.using(timestamp(bindMarker()));
+        }
+        return delete;
+    }
+
+    private static Object[] bindMarkers(int n) {
+        Object[] markers = new Object[n];
+        for (int i = 0; i < n; i++) {
+            markers[i] = bindMarker();
+        }
+        return markers;
+    }
+
     /**
      * Statement to persist an entity in Cassandra
      * 
@@ -98,11 +344,12 @@ public class MappingBuilder {
     public static <E> BuiltStatement buildInsert(E entity, WriteOptions options, String keyspace) {
         Class<?> clazz = entity.getClass();
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        options = stampVersion(entity, entityMetadata, options);
         String table = entityMetadata.getTableName();
         List<EntityFieldMetaData> fields = entityMetadata.getFields();
 
-        List<String> pkCols = entityMetadata.getPkColumns();
-        List<Object> pkVals = entityMetadata.getEntityPKValues(entity);
+        Object[] pkVals = new Object[entityMetadata.getPkColumnCount()];
+        entityMetadata.writeEntityPKValues(entity, pkVals, 0);
 
         String[] columns = new String[fields.size()];
         Object[] values = new Object[fields.size()];
@@ -112,7 +359,7 @@ public class MappingBuilder {
         Object oldVersion = null;
 
         // increment and set @Version field
-        if (entityMetadata.hasVersion()) {
+        if (entityMetadata.hasConditionalVersion()) {
             verField = entityMetadata.getVersionField();
             oldVersion = verField.getValue(entity);
             newVersion = incVersion(oldVersion);
@@ -123,9 +370,9 @@ public class MappingBuilder {
             EntityFieldMetaData f = fields.get(i);
             String colName = f.getColumnName();
             Object colVal = null;
-            if (pkCols.contains(colName)) {
-                int idx = pkCols.indexOf(colName);
-                colVal = pkVals.get(idx);
+            int idx = entityMetadata.getPkPosition(colName);
+            if (idx >= 0) {
+                colVal = pkVals[idx];
                 if (colVal == null && f.isAutoGenerate()) {
                     if (f.getDataType() == DataType.Name.TIMEUUID){
                         colVal = QueryBuilder.fcall("now");
@@ -186,11 +433,12 @@ public class MappingBuilder {
     public static <E> BuiltStatement buildUpdate(E entity, WriteOptions options, String keyspace) {
         Class<?> clazz = entity.getClass();
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        options = stampVersion(entity, entityMetadata, options);
         String table = entityMetadata.getTableName();
         List<EntityFieldMetaData> fields = entityMetadata.getFields();
 
-        List<String> pkCols = entityMetadata.getPkColumns();
-        List<Object> pkVals = entityMetadata.getEntityPKValues(entity);
+        Object[] pkVals = new Object[entityMetadata.getPkColumnCount()];
+        entityMetadata.writeEntityPKValues(entity, pkVals, 0);
 
         String[] columns = new String[fields.size()];
         Object[] values = new Object[fields.size()];
@@ -201,7 +449,7 @@ public class MappingBuilder {
         Object oldVersion = null;
 
         // increment and set @Version field
-        if (entityMetadata.hasVersion()) {
+        if (entityMetadata.hasConditionalVersion()) {
             verField = entityMetadata.getVersionField();
             oldVersion = verField.getValue(entity);
             newVersion = incVersion(oldVersion);
@@ -213,9 +461,9 @@ public class MappingBuilder {
             EntityFieldMetaData field = fields.get(i);
             String colName = field.getColumnName();
             Object colVal = null;
-            if (pkCols.contains(colName)) {
-                int idx = pkCols.indexOf(colName);
-                colVal = pkVals.get(idx);
+            int idx = entityMetadata.getPkPosition(colName);
+            if (idx >= 0) {
+                colVal = pkVals[idx];
                 update.where(eq(colName, colVal));
                 continue;
             } else {
@@ -270,6 +518,52 @@ public class MappingBuilder {
         return -1;
     }
 
+    /**
+     * For @Version enforced by write timestamps: advance the version of the
+     * entity and return options writing USING TIMESTAMP of the new version.
+     * Timestamp given in options is replaced. Returns options unchanged for
+     * other entities.
+     */
+    protected static WriteOptions stampVersion(Object entity, EntityTypeMetadata emeta, WriteOptions options) {
+        if (!emeta.hasVersion() || emeta.hasConditionalVersion()) {
+            return options;
+        }
+        EntityFieldMetaData verField = emeta.getVersionField();
+        Object value = verField.getValue(entity);
+        long oldVersion = value == null ? 0 : ((Long) value).longValue();
+        long newVersion = oldVersion + 1;
+        if (emeta.getVersionStrategy() == Versioning.Strategy.HYBRID_CLOCK) {
+            newVersion = Math.max(System.currentTimeMillis() * 1000, newVersion);
+        }
+        verField.setValue(entity, newVersion);
+
+        WriteOptions stamped = new WriteOptions().setTimestamp(newVersion);
+        if (options != null) {
+            stamped.setTtl(options.getTtl());
+            stamped.setConsistencyLevel(options.getConsistencyLevel());
+            stamped.setRetryPolicy(options.getRetryPolicy());
+        }
+        return stamped;
+    }
+
+    /**
+     * Writes of WRITE_TIMESTAMP versioned entity made without the entity
+     * have no version to be stamped with. With the default timestamp in
+     * microseconds such a write would shadow every later save, versions
+     * being counted from 1, so an explicit timestamp on the version scale
+     * is required.
+     * 
+     * @throws IllegalArgumentException if the entity is versioned by
+     *         WRITE_TIMESTAMP and options carry no timestamp
+     */
+    public static void requireVersionTimestamp(EntityTypeMetadata emeta, WriteOptions options, String operation) {
+        if (emeta.hasVersion() && emeta.getVersionStrategy() == Versioning.Strategy.WRITE_TIMESTAMP
+                && (options == null || options.getTimestamp() == -1)) {
+            throw new IllegalArgumentException("Cannot " + operation + " of " + emeta.getEntityClass().getName()
+                    + " versioned by WRITE_TIMESTAMP without a timestamp on the version scale in WriteOptions");
+        }
+    }
+
     protected static Object incVersion(Object version) {
         long newVersion = 0;
         try {
@@ -284,7 +578,7 @@ public class MappingBuilder {
     /**
      * Prepare BoundStatement to select row by id
      */
-    public static <T> BoundStatement prepareSelect(Class<T> clazz, Object id, final ReadOptions options, final String keyspace, final Session session) {
+    public static <T> BoundStatement prepareSelect(Class<T> clazz, Object id, ReadOptions options, final String keyspace, final Session session) {
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
         final List<EntityFieldMetaData> fields = entityMetadata.getFields();
         final List<String> pkCols = entityMetadata.getPkColumns();
@@ -295,23 +589,278 @@ public class MappingBuilder {
         try {
             ps = statementCache.get(getSelectCacheKey(table, session, fields), new Callable<PreparedStatement>() {
                 public PreparedStatement call() throws Exception {
-                    Select stmt = buildSelectAll(table, pkCols, options, keyspace, fields);
+                    Select stmt = buildSelectAll(table, pkCols, null, keyspace, fields);
                     return session.prepare(stmt);
                 }
             });
         } catch (ExecutionException e) {
             // if the error caused by prepare the client will get it as is,
             // otherwise process will not blow and statement will not be cached.
-            Select stmt = buildSelectAll(table, pkCols, options, keyspace, fields);
+            Select stmt = buildSelectAll(table, pkCols, null, keyspace, fields);
             ps = session.prepare(stmt);
         }
 
         // bind parameters
-        Object[] values = entityMetadata.getIdValues(id).toArray(new Object[pkCols.size()]);
+        Object[] values = new Object[pkCols.size()];
+        entityMetadata.writeIdValues(id, values, 0);
+        BoundStatement bs = ps.bind(values);
+        // statement is shared by all callers, options go to the bound one
+        applyOptions(options, bs);
+        return bs;
+    }
+
+    /**
+     * Prepare BoundStatement to check if the row exists. Selects only the
+     * first primary key column with LIMIT 1.
+     */
+    public static <T> BoundStatement prepareExists(Class<T> clazz, Object id, ReadOptions options, String keyspace, Session session) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        String column = entityMetadata.getPkColumns().get(0);
+        return prepareSelectColumn(entityMetadata, id, column, options, keyspace, session);
+    }
+
+    /**
+     * Prepare BoundStatement to select only @Version column of the row.
+     */
+    public static <T> BoundStatement prepareSelectVersion(Class<T> clazz, Object id, ReadOptions options, String keyspace, Session session) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        if (!entityMetadata.hasVersion()) {
+            throw new IllegalArgumentException("Entity " + clazz.getName() + " has no @Version field");
+        }
+        String column = entityMetadata.getVersionField().getColumnName();
+        return prepareSelectColumn(entityMetadata, id, column, options, keyspace, session);
+    }
+
+    private static BoundStatement prepareSelectColumn(EntityTypeMetadata entityMetadata, Object id, final String column, ReadOptions options, final String keyspace, final Session session) {
+        final List<String> pkCols = entityMetadata.getPkColumns();
+        final String table = entityMetadata.getTableName();
+
+        PreparedStatement ps;
+        try {
+            ps = statementCache.get(getCacheKey(table + "|" + column + "|limit1", session), new Callable<PreparedStatement>() {
+                public PreparedStatement call() throws Exception {
+                    return session.prepare(buildSelectColumn(table, column, pkCols, keyspace));
+                }
+            });
+        } catch (ExecutionException e) {
+            ps = session.prepare(buildSelectColumn(table, column, pkCols, keyspace));
+        }
+
+        Object[] values = new Object[pkCols.size()];
+        entityMetadata.writeIdValues(id, values, 0);
+        BoundStatement bs = ps.bind(values);
+        applyOptions(options, bs);
+        return bs;
+    }
+
+    private static Select buildSelectColumn(String table, String column, List<String> pkCols, String keyspace) {
+        Select select = select().column(column).from(keyspace, table);
+        appendWhere(select, pkCols);
+        select.limit(1);
+        return select;
+    }
+
+    /**
+     * Prepare BoundStatement to read partition key and static columns of the
+     * partition. SELECT DISTINCT returns one row per partition and does not
+     * read clustering rows.
+     */
+    public static <T> BoundStatement prepareSelectStatic(Class<T> clazz, Object partitionKey, ReadOptions options, final String keyspace, final Session session) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        final List<EntityFieldMetaData> statics = entityMetadata.getStaticFields();
+        if (statics.isEmpty()) {
+            throw new IllegalArgumentException("Entity " + clazz.getName() + " has no @Static fields");
+        }
+        final List<String> partitionCols = entityMetadata.getPartitionKeyColumns();
+        final String table = entityMetadata.getTableName();
+
+        PreparedStatement ps;
+        try {
+            ps = statementCache.get(getSelectCacheKey(table + "|static|", session, statics), new Callable<PreparedStatement>() {
+                public PreparedStatement call() throws Exception {
+                    return session.prepare(buildSelectStatic(table, partitionCols, statics, keyspace));
+                }
+            });
+        } catch (ExecutionException e) {
+            ps = session.prepare(buildSelectStatic(table, partitionCols, statics, keyspace));
+        }
+
+        Object[] values = new Object[partitionCols.size()];
+        entityMetadata.writePartitionKeyValues(partitionKey, values, 0);
         BoundStatement bs = ps.bind(values);
+        applyOptions(options, bs);
+        return bs;
+    }
+
+    private static Select buildSelectStatic(String table, List<String> partitionCols, List<EntityFieldMetaData> statics, String keyspace) {
+        Select.Selection selection = select().distinct();
+        for (String col : partitionCols) {
+            selection = selection.column(col);
+        }
+        for (EntityFieldMetaData field : statics) {
+            selection = selection.column(field.getColumnName());
+        }
+        Select select = selection.from(keyspace, table);
+        appendWhere(select, partitionCols);
+        return select;
+    }
+
+    /**
+     * Apply ReadOptions to the bound statement, the prepared statement is
+     * shared and left untouched.
+     */
+    public static void applyOptions(ReadOptions options, BoundStatement bs) {
+        if (options != null) {
+            if (options.getConsistencyLevel() != null) {
+                bs.setConsistencyLevel(options.getConsistencyLevel());
+            }
+
+            if (options.getRetryPolicy() != null) {
+                bs.setRetryPolicy(options.getRetryPolicy());
+            }
+        }
+    }
+
+    /**
+     * Prepare statement to select all entity columns within the token range:
+     * token(pk) > ? AND token(pk) <= ?
+     */
+    public static <T> PreparedStatement prepareScan(Class<T> clazz, final String keyspace, final Session session) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        final List<EntityFieldMetaData> fields = entityMetadata.getFields();
+        final List<String> partitionCols = entityMetadata.getPartitionKeyColumns();
+        final String table = entityMetadata.getTableName();
+        try {
+            return statementCache.get(getSelectCacheKey(table + "|scan|", session, fields), new Callable<PreparedStatement>() {
+                public PreparedStatement call() throws Exception {
+                    return session.prepare(buildScan(table, partitionCols, keyspace, fields));
+                }
+            });
+        } catch (ExecutionException e) {
+            return session.prepare(buildScan(table, partitionCols, keyspace, fields));
+        }
+    }
+
+    private static Select buildScan(String table, List<String> partitionCols, String keyspace, List<EntityFieldMetaData> fields) {
+        Select select = makeSelectEachField(table, keyspace, fields);
+        String token = token(partitionCols.toArray(new String[partitionCols.size()]));
+        select.where(gt(token, bindMarker())).and(lte(token, bindMarker()));
+        return select;
+    }
+
+    /**
+     * Prepare BoundStatement to read a slice of the partition: rows within the
+     * clustering range in requested order and limited in number. Statements
+     * are prepared once per shape of the slice.
+     */
+    public static <T> BoundStatement prepareSlice(Class<T> clazz, Object partitionKey, SliceOptions options, final String keyspace, final Session session) {
+        final SliceOptions slice = options == null ? new SliceOptions() : options;
+        final EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        final List<String> clusteringCols = entityMetadata.getClusteringColumns();
+        final int fromLen = slice.getFrom() == null ? 0 : slice.getFrom().length;
+        final int toLen = slice.getTo() == null ? 0 : slice.getTo().length;
+        if (fromLen > clusteringCols.size() || toLen > clusteringCols.size()) {
+            throw new IllegalArgumentException("Slice bounds exceed clustering columns " + clusteringCols + " of " + clazz.getName());
+        }
+        if (slice.getOrder() != null && clusteringCols.isEmpty()) {
+            throw new IllegalArgumentException("Entity " + clazz.getName() + " has no clustering columns to order by");
+        }
+
+        StringBuilder shape = new StringBuilder(entityMetadata.getTableName());
+        shape.append("|slice|").append(fromLen).append(slice.isFromInclusive() ? "[" : "(");
+        shape.append(toLen).append(slice.isToInclusive() ? "]" : ")");
+        shape.append(slice.getOrder()).append('|').append(slice.getLimit() > 0).append('|');
+
+        PreparedStatement ps;
+        try {
+            ps = statementCache.get(getSelectCacheKey(shape.toString(), session, entityMetadata.getFields()), new Callable<PreparedStatement>() {
+                public PreparedStatement call() throws Exception {
+                    return session.prepare(buildSlice(entityMetadata, clusteringCols, fromLen, toLen, slice, keyspace));
+                }
+            });
+        } catch (ExecutionException e) {
+            ps = session.prepare(buildSlice(entityMetadata, clusteringCols, fromLen, toLen, slice, keyspace));
+        }
+
+        List<Object> values = entityMetadata.getPartitionKeyValues(partitionKey);
+        appendBindValues(values, slice.getFrom());
+        appendBindValues(values, slice.getTo());
+        if (slice.getLimit() > 0) {
+            values.add(slice.getLimit());
+        }
+        BoundStatement bs = ps.bind(values.toArray());
+        if (slice.getConsistencyLevel() != null) {
+            bs.setConsistencyLevel(slice.getConsistencyLevel());
+        }
+        if (slice.getRetryPolicy() != null) {
+            bs.setRetryPolicy(slice.getRetryPolicy());
+        }
         return bs;
     }
 
+    private static Select buildSlice(EntityTypeMetadata entityMetadata, List<String> clusteringCols, int fromLen, int toLen, SliceOptions slice, String keyspace) {
+        Select select = makeSelectEachField(entityMetadata.getTableName(), keyspace, entityMetadata.getFields());
+        appendWhere(select, entityMetadata.getPartitionKeyColumns());
+        for (Clause clause : clusteringRange(clusteringCols, fromLen, slice.isFromInclusive(), toLen, slice.isToInclusive())) {
+            select.where(clause);
+        }
+        if (slice.getOrder() == SliceOptions.Order.DESC) {
+            select.orderBy(desc(clusteringCols.get(0)));
+        } else if (slice.getOrder() == SliceOptions.Order.ASC) {
+            select.orderBy(asc(clusteringCols.get(0)));
+        }
+        if (slice.getLimit() > 0) {
+            select.limit(bindMarker());
+        }
+        return select;
+    }
+
+    /**
+     * Clustering range restrictions with bind markers. Prefixes longer than
+     * one column use multi-column relations (c1, c2) >= (?, ?). Cassandra
+     * does not allow mixing single and multi-column relations, so when
+     * either bound is longer than one column both use tuple notation, e.g.
+     * (c1, c2) >= (?, ?) AND (c1) <= (?).
+     */
+    private static List<Clause> clusteringRange(List<String> clusteringCols, int fromLen, boolean fromInclusive, int toLen, boolean toInclusive) {
+        List<Clause> clauses = new ArrayList<Clause>(2);
+        boolean tuple = fromLen > 1 || toLen > 1;
+        if (fromLen > 0) {
+            clauses.add(rangeClause(clusteringCols.subList(0, fromLen), tuple, fromInclusive, true));
+        }
+        if (toLen > 0) {
+            clauses.add(rangeClause(clusteringCols.subList(0, toLen), tuple, toInclusive, false));
+        }
+        return clauses;
+    }
+
+    private static Clause rangeClause(List<String> columns, boolean tuple, boolean inclusive, boolean lower) {
+        if (!tuple) {
+            String column = columns.get(0);
+            if (lower) {
+                return inclusive ? gte(column, bindMarker()) : gt(column, bindMarker());
+            }
+            return inclusive ? lte(column, bindMarker()) : lt(column, bindMarker());
+        }
+        List<Object> markers = new ArrayList<Object>();
+        for (int i = 0; i < columns.size(); i++) {
+            markers.add(bindMarker());
+        }
+        List<String> names = new ArrayList<String>(columns);
+        if (lower) {
+            return inclusive ? gte(names, markers) : gt(names, markers);
+        }
+        return inclusive ? lte(names, markers) : lt(names, markers);
+    }
+
+    private static void appendBindValues(List<Object> values, Object[] bound) {
+        if (bound != null) {
+            for (Object value : bound) {
+                values.add(value instanceof Enum<?> ? ((Enum<?>) value).name() : value);
+            }
+        }
+    }
+
     private static String getSelectCacheKey(String table, Session session, List<EntityFieldMetaData> fields) {
         StringBuilder sb = new StringBuilder();
         for (EntityFieldMetaData property : fields) {
@@ -361,18 +910,34 @@ public class MappingBuilder {
         }
     }
 
+    /**
+     * Statement to delete the row of the entity. For @Version enforced by
+     * write timestamps the version is advanced and the tombstone is written
+     * USING TIMESTAMP of it, so a later save of the entity is not shadowed.
+     */
     public static <E> BuiltStatement buildDelete(E entity, String keyspace) {
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(entity.getClass());
         List<String> pkCols = entityMetadata.getPkColumns();
-        Object[] values = entityMetadata.getEntityPKValues(entity).toArray(new Object[pkCols.size()]);
+        Object[] values = new Object[pkCols.size()];
+        entityMetadata.writeEntityPKValues(entity, values, 0);
         Delete delete = buildDelete(entityMetadata, pkCols, values, keyspace);
+        WriteOptions stamped = stampVersion(entity, entityMetadata, null);
+        if (stamped != null) {
+            delete.using(timestamp(stamped.getTimestamp()));
+        }
         return delete;
     }
 
+    /**
+     * @throws IllegalArgumentException for WRITE_TIMESTAMP versioned entity,
+     *         there is no version to stamp the tombstone with
+     */
     public static <T> BuiltStatement buildDelete(Class<T> clazz, Object id, String keyspace) {
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        requireVersionTimestamp(entityMetadata, null, "delete by id");
         List<String> pkCols = entityMetadata.getPkColumns();
-        Object[] values = entityMetadata.getIdValues(id).toArray(new Object[pkCols.size()]);
+        Object[] values = new Object[pkCols.size()];
+        entityMetadata.writeIdValues(id, values, 0);
         Delete delete = buildDelete(entityMetadata, pkCols, values, keyspace);
         return delete;
     }
@@ -386,6 +951,65 @@ public class MappingBuilder {
         return delete;
     }
 
+    /**
+     * Prepare BoundStatement to delete rows of the partition within the
+     * inclusive clustering range with a single range tombstone. Without
+     * bounds the whole partition is deleted with a partition tombstone.
+     * 
+     * @param partitionKey value of partition key column or instance of the
+     *        partition key class for composite partition key
+     * @param from lower bound, prefix of clustering column values or null
+     * @param to upper bound, prefix of clustering column values or null
+     */
+    public static <T> BoundStatement prepareDeleteRange(Class<T> clazz, Object partitionKey, Object[] from, Object[] to, WriteOptions options, final String keyspace, final Session session) {
+        final EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        final List<String> clusteringCols = entityMetadata.getClusteringColumns();
+        final int fromLen = from == null ? 0 : from.length;
+        final int toLen = to == null ? 0 : to.length;
+        if (fromLen > clusteringCols.size() || toLen > clusteringCols.size()) {
+            throw new IllegalArgumentException("Range bounds exceed clustering columns " + clusteringCols + " of " + clazz.getName());
+        }
+        requireVersionTimestamp(entityMetadata, options, "delete range");
+        final boolean withTimestamp = options != null && options.getTimestamp() != -1;
+
+        String shape = entityMetadata.getTableName() + "|deleteRange|" + fromLen + "|" + toLen + "|" + withTimestamp;
+        PreparedStatement ps;
+        try {
+            ps = statementCache.get(getCacheKey(shape, session), new Callable<PreparedStatement>() {
+                public PreparedStatement call() throws Exception {
+                    return session.prepare(buildDeleteRange(entityMetadata, clusteringCols, fromLen, toLen, withTimestamp, keyspace));
+                }
+            });
+        } catch (ExecutionException e) {
+            ps = session.prepare(buildDeleteRange(entityMetadata, clusteringCols, fromLen, toLen, withTimestamp, keyspace));
+        }
+
+        List<Object> values = new ArrayList<Object>();
+        if (withTimestamp) {
+            values.add(options.getTimestamp());
+        }
+        values.addAll(entityMetadata.getPartitionKeyValues(partitionKey));
+        appendBindValues(values, from);
+        appendBindValues(values, to);
+        BoundStatement bs = ps.bind(values.toArray());
+        applyOptions(options, bs);
+        return bs;
+    }
+
+    private static Delete buildDeleteRange(EntityTypeMetadata entityMetadata, List<String> clusteringCols, int fromLen, int toLen, boolean withTimestamp, String keyspace) {
+        Delete delete = QueryBuilder.delete().from(keyspace, entityMetadata.getTableName());
+        for (String col : entityMetadata.getPartitionKeyColumns()) {
+            delete.where(eq(col, bindMarker()));
+        }
+        for (Clause clause : clusteringRange(clusteringCols, fromLen, true, toLen, true)) {
+            delete.where(clause);
+        }
+        if (withTimestamp) {
+            delete.using(timestamp(bindMarker()));
+        }
+        return delete;
+    }
+
     @SuppressWarnings("unchecked")
     public static Object getValueFromRow(Row row, EntityFieldMetaData field) {
         Object value = null;
@@ -405,7 +1029,12 @@ public class MappingBuilder {
                     value = row.getString(field.getColumnName());
                     break;
                 case BLOB:
-                    value = row.getBytes(field.getColumnName());
+                    if (field.isZeroCopy()) {
+                        ByteBuffer bytes = row.getBytesUnsafe(field.getColumnName());
+                        value = bytes == null ? null : bytes.asReadOnlyBuffer();
+                    } else {
+                        value = row.getBytes(field.getColumnName());
+                    }
                     break;
                 case BOOLEAN:
                     value = row.getBool(field.getColumnName());
@@ -417,7 +1046,8 @@ public class MappingBuilder {
                 	if (cls == Date.class) {
                 		value = row.getTimestamp(field.getColumnName());
                 	} else {
-                		value = (row.getTimestamp(field.getColumnName())).getTime();
+                		Date date = row.getTimestamp(field.getColumnName());
+                		value = date == null ? null : date.getTime();
                 	}
                     break;
                 case UUID:
@@ -506,15 +1136,16 @@ public class MappingBuilder {
 
     /**
      * Convert ResultSet into List<T>. Create an instance of <T> for each row.
-     * To populate instance of <T> iterate through the entity fields and
-     * retrieve the value from the ResultSet by the field name
-     * 
-     * @throws Exception
+     * To populate instance of <T> iterate through the entity fields present in
+     * the ResultSet and retrieve the value from the Row by the field name.
+     * Present fields are resolved once per ResultSet.
      */
     public static <T> List<T> getFromResultSet(Class<T> clazz, ResultSet rs) {
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        List<EntityFieldMetaData> present = entityMetadata.getFieldsPresentIn(rs.getColumnDefinitions());
         List<T> result = new ArrayList<T>();
         for (Row row : rs.all()) {
-            result.add(getFromRow(clazz, row));
+            result.add(getFromRow(clazz, row, entityMetadata, present));
         }
         return result;
     }
@@ -523,19 +1154,105 @@ public class MappingBuilder {
      * Convert collection of ResultSet Rows into List<Entity>
      */
     public static <T> List<T> getFromRows(Class<T> clazz, Collection<Row> rows) {
-        List<T> result = new ArrayList<T>();
+        EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        List<T> result = new ArrayList<T>(rows.size());
+        ColumnDefinitions columns = null;
+        List<EntityFieldMetaData> present = null;
         for (Row row : rows) {
-            result.add(getFromRow(clazz, row));
+            if (present == null || row.getColumnDefinitions() != columns) {
+                columns = row.getColumnDefinitions();
+                present = entityMetadata.getFieldsPresentIn(columns);
+            }
+            result.add(getFromRow(clazz, row, entityMetadata, present));
         }
         return result;
     }
 
+    /**
+     * Convert ResultSet into List<T> mapping rows in parallel.
+     */
+    public static <T> List<T> getFromResultSet(Class<T> clazz, ResultSet rs, Parallelism parallelism) {
+        return getFromRows(clazz, rs.all(), parallelism);
+    }
+
+    /**
+     * Convert collection of ResultSet Rows into List<Entity> mapping rows in
+     * parallel on the ForkJoinPool. The order of the rows is kept. Falls back
+     * to serial mapping when the number of rows is below the threshold.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> getFromRows(Class<T> clazz, Collection<Row> rows, Parallelism parallelism) {
+        if (parallelism == null || rows.size() < Math.max(parallelism.getThreshold(), 2)) {
+            return getFromRows(clazz, rows);
+        }
+        // resolve metadata on the calling thread before forking
+        EntityTypeParser.getEntityMetadata(clazz);
+
+        ForkJoinPool pool = parallelism.getPool();
+        Row[] input = rows.toArray(new Row[rows.size()]);
+        Object[] output = new Object[input.length];
+        int chunk = parallelism.getChunkSize();
+        if (chunk < 1) {
+            chunk = Math.max(256, input.length / (pool.getParallelism() * 4));
+        }
+        pool.invoke(new MapRowsTask<T>(clazz, input, output, 0, input.length, chunk));
+        return new ArrayList<T>((List<T>) Arrays.asList(output));
+    }
+
+    /** Maps range of rows into the same positions of the output array */
+    private static class MapRowsTask<T> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Class<T> clazz;
+        private final Row[]    input;
+        private final Object[] output;
+        private final int      from;
+        private final int      to;
+        private final int      chunk;
+
+        MapRowsTask(Class<T> clazz, Row[] input, Object[] output, int from, int to, int chunk) {
+            this.clazz = clazz;
+            this.input = input;
+            this.output = output;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+                ColumnDefinitions columns = null;
+                List<EntityFieldMetaData> present = null;
+                for (int i = from; i < to; i++) {
+                    Row row = input[i];
+                    if (present == null || row.getColumnDefinitions() != columns) {
+                        columns = row.getColumnDefinitions();
+                        present = entityMetadata.getFieldsPresentIn(columns);
+                    }
+                    output[i] = getFromRow(clazz, row, entityMetadata, present);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new MapRowsTask<T>(clazz, input, output, from, mid, chunk), new MapRowsTask<T>(clazz, input, output, mid, to, chunk));
+        }
+    }
+
     /**
      * Convert individual ResultSet Row into Entity instance
      */
     public static <T> T getFromRow(Class<T> clazz, Row row) {
         EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        return getFromRow(clazz, row, entityMetadata, entityMetadata.getFieldsPresentIn(row.getColumnDefinitions()));
+    }
 
+    /**
+     * Convert individual ResultSet Row into Entity instance populating only
+     * the given fields. Fields must be present in the Row.
+     */
+    public static <T> T getFromRow(Class<T> clazz, Row row, EntityTypeMetadata entityMetadata, List<EntityFieldMetaData> present) {
         T entity = null;
         Object primaryKey = null;
         Object partitionKey = null;
@@ -560,7 +1277,7 @@ public class MappingBuilder {
         }
 
         // set properties' values
-        for (EntityFieldMetaData field : entityMetadata.getFields()) {
+        for (EntityFieldMetaData field : present) {
             Object value = getValueFromRow(row, field);
             try {
                 if (value != null) {
@@ -589,27 +1306,101 @@ public class MappingBuilder {
     }
 
     public static <T> BoundStatement prepareDelete(Object id, Class<T> clazz, String propertyName, String keyspace, Session session) {
+        return prepareDelete(id, clazz, propertyName, null, keyspace, session);
+    }
+
+    public static <T> BoundStatement prepareDelete(Object id, Class<T> clazz, String propertyName, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
-        EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
+        return prepareDelete(id, emeta, emeta.getFieldMetadata(propertyName), options, keyspace, session);
+    }
+
+    public static BoundStatement prepareDelete(Object id, EntityTypeMetadata emeta, EntityFieldMetaData fmeta, String keyspace, Session session) {
+        return prepareDelete(id, emeta, fmeta, null, keyspace, session);
+    }
+
+    public static BoundStatement prepareDelete(Object id, EntityTypeMetadata emeta, EntityFieldMetaData fmeta, WriteOptions options, String keyspace, Session session) {
+        requireVersionTimestamp(emeta, options, "delete " + fmeta.getName());
         Delete delete = QueryBuilder.delete(fmeta.getColumnName()).from(keyspace, emeta.getTableName());
         List<String> pkCols = emeta.getPkColumns();
         for (String col : pkCols) {
             delete.where(eq(col, QueryBuilder.bindMarker()));
         }
-        return prepareBoundStatement(id, emeta, delete, pkCols, session);
+        if (options != null && options.getTimestamp() != -1) {
+            delete.using(timestamp(options.getTimestamp()));
+        }
+        BoundStatement bs = prepareBoundStatement(id, emeta, delete, pkCols, session);
+        applyOptions(options, bs);
+        return bs;
     }
 
     public static BoundStatement prepareBoundStatement(Object id, EntityTypeMetadata emeta, BuiltStatement stmt, List<String> pkCols, Session session) {
         // bind parameters
-        Object[] values = emeta.getIdValues(id).toArray(new Object[pkCols.size()]);
+        Object[] values = new Object[pkCols.size()];
+        emeta.writeIdValues(id, values, 0);
         String q = stmt.getQueryString();
         PreparedStatement ps = getOrPrepareStatement(session, stmt, q);
         return ps.bind(values);
     }
 
+    /**
+     * @return metadata of the COUNTER property
+     * @throws IllegalArgumentException if the property is not a COUNTER
+     */
+    public static EntityFieldMetaData getCounterField(EntityTypeMetadata emeta, String propertyName) {
+        EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
+        if (fmeta == null || fmeta.getDataType() != DataType.Name.COUNTER) {
+            throw new IllegalArgumentException("Property " + propertyName + " of " + emeta.getEntityClass().getName() + " is not a COUNTER");
+        }
+        return fmeta;
+    }
+
+    /**
+     * Prepare UPDATE ... SET c = c + ? for a COUNTER property.
+     */
+    public static BoundStatement prepareIncrement(Object id, Class<?> clazz, String propertyName, long delta, WriteOptions options, String keyspace, Session session) {
+        EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
+        return prepareIncrement(emeta.getIdValues(id), emeta, propertyName, delta, options, keyspace, session);
+    }
+
+    /**
+     * Prepare UPDATE ... SET c = c + ? for a COUNTER property of the row with
+     * given primary key values.
+     */
+    public static BoundStatement prepareIncrement(List<Object> pkValues, EntityTypeMetadata emeta, String propertyName, long delta, WriteOptions options, String keyspace, Session session) {
+        EntityFieldMetaData fmeta = getCounterField(emeta, propertyName);
+        List<String> pkCols = emeta.getPkColumns();
+        Update update = QueryBuilder.update(keyspace, emeta.getTableName());
+        update.with(incr(fmeta.getColumnName(), bindMarker()));
+        for (String col : pkCols) {
+            update.where(eq(col, bindMarker()));
+        }
+        PreparedStatement ps = getOrPrepareStatement(session, update, update.getQueryString());
+
+        Object[] values = new Object[pkCols.size() + 1];
+        values[0] = delta;
+        for (int i = 0; i < pkCols.size(); i++) {
+            values[i + 1] = pkValues.get(i);
+        }
+        BoundStatement bs = ps.bind(values);
+        applyOptions(options, bs);
+        return bs;
+    }
+
     public static BoundStatement prepareRemoveItemsFromSetOrList(Object id, Class<?> clazz, String propertyName, Object item, String keyspace, Session session) {
+        return prepareRemoveItemsFromSetOrList(id, clazz, propertyName, item, null, keyspace, session);
+    }
+
+    public static BoundStatement prepareRemoveItemsFromSetOrList(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
-        EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
+        return prepareRemoveItemsFromSetOrList(id, emeta, emeta.getFieldMetadata(propertyName), item, options, keyspace, session);
+    }
+
+    public static BoundStatement prepareRemoveItemsFromSetOrList(Object id, EntityTypeMetadata emeta, EntityFieldMetaData fmeta, Object item, String keyspace, Session session) {
+        return prepareRemoveItemsFromSetOrList(id, emeta, fmeta, item, null, keyspace, session);
+    }
+
+    public static BoundStatement prepareRemoveItemsFromSetOrList(Object id, EntityTypeMetadata emeta, EntityFieldMetaData fmeta, Object item, WriteOptions options, String keyspace, Session session) {
+        requireVersionTimestamp(emeta, options, "remove from " + fmeta.getName());
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
 
         if (item instanceof Set<?> && fmeta.getType() == Set.class) {
@@ -627,19 +1418,26 @@ public class MappingBuilder {
         } else if (fmeta.getType() == List.class) {
             update.with(QueryBuilder.discard(fmeta.getColumnName(), item));
         }
+        applyOptions(options, update, null);
         return prepareUpdate(id, emeta, update, session);
     }
 
     public static BoundStatement prepareUpdateValue(Object id, Class<?> clazz, String propertyName, Object value, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
+        return prepareUpdateValue(id, emeta, emeta.getFieldMetadata(propertyName), value, options, keyspace, session);
+    }
+
+    public static BoundStatement prepareUpdateValue(Object id, EntityTypeMetadata emeta, EntityFieldMetaData fmeta, Object value, WriteOptions options, String keyspace, Session session) {
+        requireVersionTimestamp(emeta, options, "update " + fmeta.getName());
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
-        setValueToUpdateStatement(emeta, update, propertyName, value);
+        setValueToUpdateStatement(update, fmeta, value);
         applyOptions(options, update, null);
         return prepareUpdate(id, emeta, update, session);
     }
 
     public static BoundStatement prepareUpdateValues(Object id, Class<?> clazz, String[] propertyNames, Object[] values, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
+        requireVersionTimestamp(emeta, options, "update " + Arrays.toString(propertyNames));
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
         for (int i=0; i<propertyNames.length; i++) {  
             setValueToUpdateStatement(emeta, update, propertyNames[i], values[i]);
@@ -649,7 +1447,10 @@ public class MappingBuilder {
     }
     
     public static void setValueToUpdateStatement(EntityTypeMetadata emeta, Update update, String propertyName, Object value) {
-        EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
+        setValueToUpdateStatement(update, emeta.getFieldMetadata(propertyName), value);
+    }
+
+    public static void setValueToUpdateStatement(Update update, EntityFieldMetaData fmeta, Object value) {
         if (value.getClass().isEnum()) {
             value = ((Enum<?>) value).name();
         }
@@ -658,7 +1459,11 @@ public class MappingBuilder {
     
     public static BoundStatement prepareAppendItemToCollection(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
-        EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
+        return prepareAppendItemToCollection(id, emeta, emeta.getFieldMetadata(propertyName), item, options, keyspace, session);
+    }
+
+    public static BoundStatement prepareAppendItemToCollection(Object id, EntityTypeMetadata emeta, EntityFieldMetaData fmeta, Object item, WriteOptions options, String keyspace, Session session) {
+        requireVersionTimestamp(emeta, options, "append to " + fmeta.getName());
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
 
         if (item instanceof Set<?> && fmeta.getType() == Set.class) {
@@ -687,7 +1492,11 @@ public class MappingBuilder {
 
     public static BoundStatement preparePrependItemToList(Object id, Class<?> clazz, String propertyName, Object item, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
-        EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
+        return preparePrependItemToList(id, emeta, emeta.getFieldMetadata(propertyName), item, options, keyspace, session);
+    }
+
+    public static BoundStatement preparePrependItemToList(Object id, EntityTypeMetadata emeta, EntityFieldMetaData fmeta, Object item, WriteOptions options, String keyspace, Session session) {
+        requireVersionTimestamp(emeta, options, "prepend to " + fmeta.getName());
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
 
         if (item instanceof List<?> && fmeta.getType() == List.class) {
@@ -704,7 +1513,11 @@ public class MappingBuilder {
 
     public static BoundStatement prepareReplaceAt(Object id, Class<?> clazz, String propertyName, Object item, int idx, WriteOptions options, String keyspace, Session session) {
         EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(clazz);
-        EntityFieldMetaData fmeta = emeta.getFieldMetadata(propertyName);
+        return prepareReplaceAt(id, emeta, emeta.getFieldMetadata(propertyName), item, idx, options, keyspace, session);
+    }
+
+    public static BoundStatement prepareReplaceAt(Object id, EntityTypeMetadata emeta, EntityFieldMetaData fmeta, Object item, int idx, WriteOptions options, String keyspace, Session session) {
+        requireVersionTimestamp(emeta, options, "replace in " + fmeta.getName());
         Update update = QueryBuilder.update(keyspace, emeta.getTableName());
 
         if (fmeta.getType() == List.class) {
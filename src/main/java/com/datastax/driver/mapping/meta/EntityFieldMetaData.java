@@ -39,6 +39,7 @@ public class EntityFieldMetaData {
 	private boolean isPartition;
 	private boolean isStatic;
 	private boolean autoGenerate;
+	private boolean zeroCopy;
 	
 	public EntityFieldMetaData(Field field, DataType.Name dataType, Method getter, Method setter, String columnName) {
 		this.field = field;
@@ -175,5 +176,16 @@ public class EntityFieldMetaData {
 
     public void setAutoGenerate(boolean autoGenerate) {
         this.autoGenerate = autoGenerate;
-    }	
+    }
+
+    /**
+     * indicates if BLOB value is mapped as read-only view without copying
+     */
+    public boolean isZeroCopy() {
+        return zeroCopy;
+    }
+
+    public void setZeroCopy(boolean zeroCopy) {
+        this.zeroCopy = zeroCopy;
+    }
 }
\ No newline at end of file
@@ -16,10 +16,19 @@
 package com.datastax.driver.mapping.meta;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.mapping.annotation.Versioning;
 
 /**
  * This class is Meta Info for the persistent entity and entity fields
@@ -32,6 +41,12 @@ public class EntityTypeMetadata {
 	
 	private PrimaryKeyMetadata primaryKeyMetadata;
 	private List<EntityFieldMetaData> fields = new ArrayList<EntityFieldMetaData>();
+	// field lookup by property name, lower case property name and column name
+	private Map<String, EntityFieldMetaData> fieldsByName = new HashMap<String, EntityFieldMetaData>();
+	private Map<String, EntityFieldMetaData> fieldsByLowerName = new HashMap<String, EntityFieldMetaData>();
+	private Map<String, EntityFieldMetaData> fieldsByColumn = new HashMap<String, EntityFieldMetaData>();
+	// primary key columns and key extractors, built on first use
+	private volatile PkLayout pkLayout;
 	private EntityFieldMetaData versionField;
 	
 	// indexes<column_name, index_name>
@@ -40,8 +55,16 @@ public class EntityTypeMetadata {
 	private List<String> properties = new ArrayList<String>();
 	// default time to leave
 	private int ttl = -100;
+	private Versioning.Strategy versionStrategy = Versioning.Strategy.LWT;
+	// bumped whenever any entity may need to be synchronized again
+	private static volatile int syncEpoch;
 	// true if synchronized with Cassandra
-	private List<String> syncedKeyspaces = new ArrayList<String>();
+	private Set<String> syncedKeyspaces = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	// fields present in result set by columns layout
+	private ConcurrentMap<String, List<EntityFieldMetaData>> mappingPlans = new ConcurrentHashMap<String, List<EntityFieldMetaData>>();
+	// plan of the last columns instance, rows of one result set share the instance
+	private volatile MappingPlan lastPlan;
+	private static final int MAX_MAPPING_PLANS = 256;
 
 	public EntityTypeMetadata(Class<?> entityClass) {
 		this(entityClass, entityClass.getSimpleName());
@@ -57,6 +80,10 @@ public class EntityTypeMetadata {
 	
 	public void addField(EntityFieldMetaData fieldData) {
 		fields.add(fieldData);
+		fieldsByName.put(fieldData.getName(), fieldData);
+		fieldsByLowerName.put(fieldData.getName().toLowerCase(Locale.ROOT), fieldData);
+		fieldsByColumn.put(fieldData.getColumnName(), fieldData);
+		mappingPlans.clear();
 	}
 
 	public void addProperty(String value) {
@@ -67,13 +94,84 @@ public class EntityTypeMetadata {
 		return properties;
 	}
 	
+	/**
+	 * @param field property name, case insensitive
+	 * @return metadata of the property or null
+	 */
 	public EntityFieldMetaData getFieldMetadata(String field) {
-		for (EntityFieldMetaData fieldMeta: fields) {
-			if (field.equalsIgnoreCase(fieldMeta.getName())) {
-				return fieldMeta;
+		EntityFieldMetaData fieldMeta = fieldsByName.get(field);
+		if (fieldMeta == null) {
+			fieldMeta = fieldsByLowerName.get(field.toLowerCase(Locale.ROOT));
+		}
+		return fieldMeta;
+	}
+
+	/**
+	 * @param column column name as mapped
+	 * @return metadata of the property mapped to the column or null
+	 */
+	public EntityFieldMetaData getFieldByColumn(String column) {
+		return fieldsByColumn.get(column);
+	}
+
+	/**
+	 * Resolve the property once for repeated use.
+	 * 
+	 * @param field property name, case insensitive
+	 * @throws IllegalArgumentException if the entity has no such property
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> PropertyRef<T> getPropertyRef(String field) {
+		EntityFieldMetaData fieldMeta = getFieldMetadata(field);
+		if (fieldMeta == null) {
+			throw new IllegalArgumentException("Property " + field + " not found in " + entityClass.getName());
+		}
+		return new PropertyRef<T>((Class<T>) entityClass, this, fieldMeta);
+	}
+
+	/**
+	 * @param column column name as mapped
+	 * @return position of the column in the primary key or -1
+	 */
+	public int getPkPosition(String column) {
+		Integer idx = pkLayout().positions.get(column);
+		return idx == null ? -1 : idx;
+	}
+	
+	/**
+	 * Fields which can be populated from rows with the given columns.
+	 * Resolved once per columns layout and cached. Repeated calls with the
+	 * same columns instance, as for the rows of one result set or results
+	 * of one prepared statement, skip building the layout key.
+	 */
+	public List<EntityFieldMetaData> getFieldsPresentIn(ColumnDefinitions columns) {
+		if (columns == null) {
+			return fields;
+		}
+		MappingPlan last = lastPlan;
+		if (last != null && last.columns == columns) {
+			return last.fields;
+		}
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < columns.size(); i++) {
+			sb.append(columns.getName(i));
+			sb.append('|');
+		}
+		String layout = sb.toString();
+		List<EntityFieldMetaData> plan = mappingPlans.get(layout);
+		if (plan == null) {
+			plan = new ArrayList<EntityFieldMetaData>();
+			for (EntityFieldMetaData field: fields) {
+				if (columns.contains(field.getColumnName())) {
+					plan.add(field);
+				}
+			}
+			if (mappingPlans.size() < MAX_MAPPING_PLANS) {
+				mappingPlans.putIfAbsent(layout, plan);
 			}
 		}
-		return null;
+		lastPlan = new MappingPlan(columns, plan);
+		return plan;
 	}
 	
 	public Class<?> getEntityClass() {
@@ -93,11 +191,11 @@ public class EntityTypeMetadata {
 	}
 
 	public String getIndex(String column) {
-		return indexes.get(column.toLowerCase());
+		return indexes.get(column.toLowerCase(Locale.ROOT));
 	}
 
 	public void addindex(String name, String column) {
-		indexes.put(column.toLowerCase(), name.toLowerCase());
+		indexes.put(column.toLowerCase(Locale.ROOT), name.toLowerCase(Locale.ROOT));
 	}
 	
 	public boolean isSynced(String keyspace) {
@@ -110,6 +208,24 @@ public class EntityTypeMetadata {
 
 	public void markUnSynced(String keyspace) {
 	    syncedKeyspaces.remove(keyspace);
+	    invalidateSync();
+	}
+
+	/**
+	 * Sync decisions cached by sessions are valid only within the epoch.
+	 */
+	public static int getSyncEpoch() {
+		return syncEpoch;
+	}
+
+	/**
+	 * Start a new epoch, sessions will check the sync state of every entity
+	 * again. Called when a table is dropped or metadata is discarded.
+	 */
+	public static void invalidateSync() {
+		synchronized (EntityTypeMetadata.class) {
+			syncEpoch++;
+		}
 	}
 
 	public PrimaryKeyMetadata getPrimaryKeyMetadata() {
@@ -118,57 +234,159 @@ public class EntityTypeMetadata {
 
 	public void setPrimaryKeyMetadata(PrimaryKeyMetadata primaryKeyMetadata) {
 		this.primaryKeyMetadata = primaryKeyMetadata;
+		this.pkLayout = null;
 	}
-	
 
+	private PkLayout pkLayout() {
+		PkLayout layout = pkLayout;
+		if (layout == null) {
+			layout = new PkLayout(primaryKeyMetadata);
+			pkLayout = layout;
+		}
+		return layout;
+	}
+
+	/**
+	 * columns of the primary key in the bind order: partition key columns
+	 * followed by clustering columns. The list is shared and read-only.
+	 */
 	public List<String> getPkColumns() {
-		List<String> columns = new ArrayList<String>();
-		if (primaryKeyMetadata.hasPartitionKey()) {
-			PrimaryKeyMetadata pk = primaryKeyMetadata.getPartitionKey();
-			for (EntityFieldMetaData f: pk.getFields()) {
-				columns.add(f.getColumnName());
+		return pkLayout().pkColumns;
+	}
+
+	/**
+	 * number of the primary key columns
+	 */
+	public int getPkColumnCount() {
+		return pkLayout().pkColumns.size();
+	}
+
+	/**
+	 * columns of the partition key. The list is shared and read-only.
+	 */
+	public List<String> getPartitionKeyColumns() {
+		return pkLayout().partitionColumns;
+	}
+
+	/**
+	 * fields declared as @Static, shared by all rows of the partition
+	 */
+	public List<EntityFieldMetaData> getStaticFields() {
+		List<EntityFieldMetaData> statics = new ArrayList<EntityFieldMetaData>();
+		for (EntityFieldMetaData f: fields) {
+			if (f.isStatic()) {
+				statics.add(f);
+			}
+		}
+		return statics;
+	}
+
+	/**
+	 * clustering columns in the order declared in the primary key.
+	 * The list is shared and read-only.
+	 */
+	public List<String> getClusteringColumns() {
+		return pkLayout().clusteringColumns;
+	}
+
+	/**
+	 * retrieve values of the partition key columns.
+	 * 
+	 * @param partitionKey instance of the partition key class for composite
+	 *        partition key or the value of the partition key column
+	 */
+	public List<Object> getPartitionKeyValues(Object partitionKey) {
+		PkLayout layout = pkLayout();
+		List<Object> vals = new ArrayList<Object>(layout.pkColumns.size());
+		if (layout.partitionFields != null) {
+			for (EntityFieldMetaData f: layout.partitionFields) {
+				vals.add(f.getValue(partitionKey));
 			}
-		} 
-		
-		if (primaryKeyMetadata.isCompound()) {
-			for (EntityFieldMetaData f: primaryKeyMetadata.getFields()) {
-				columns.add(f.getColumnName());
-			}			
 		} else {
-			columns.add(primaryKeyMetadata.getOwnField().getColumnName());
+			vals.add(partitionKey);
 		}
-		
-		return columns;
+		return vals;
+	}
+
+	/**
+	 * write values of the partition key columns into the array.
+	 * 
+	 * @return number of values written
+	 */
+	public int writePartitionKeyValues(Object partitionKey, Object[] dest, int offset) {
+		EntityFieldMetaData[] partitionFields = pkLayout().partitionFields;
+		if (partitionFields == null) {
+			dest[offset] = partitionKey;
+			return 1;
+		}
+		for (int i = 0; i < partitionFields.length; i++) {
+			dest[offset + i] = partitionFields[i].getValue(partitionKey);
+		}
+		return partitionFields.length;
 	}
 
 	/**
 	 * retrieve values from PK
 	 */	
 	public List<Object> getIdValues(Object id) {
-		List<Object> vals = new ArrayList<Object>();
-		if (primaryKeyMetadata.hasPartitionKey()) {
-			PrimaryKeyMetadata pk = primaryKeyMetadata.getPartitionKey();
-			Object partitionKey = pk.getOwnField().getValue(id);
-			for (EntityFieldMetaData f: pk.getFields()) {
-				vals.add(f.getValue(partitionKey));
+		Object[] vals = new Object[getPkColumnCount()];
+		writeIdValues(id, vals, 0);
+		return Arrays.asList(vals);
+	}
+
+	/**
+	 * write values of the primary key columns into the array in the order
+	 * of {@link #getPkColumns()}.
+	 * 
+	 * @return number of values written
+	 */
+	public int writeIdValues(Object id, Object[] dest, int offset) {
+		PkLayout layout = pkLayout();
+		if (layout.keyFields == null) {
+			dest[offset] = id;
+			return 1;
+		}
+		int n = 0;
+		if (layout.partitionField != null) {
+			Object partitionKey = layout.partitionField.getValue(id);
+			for (EntityFieldMetaData f: layout.partitionFields) {
+				dest[offset + n++] = f.getValue(partitionKey);
 			}
-		} 
-		
-		if (primaryKeyMetadata.isCompound()) {
-			for (EntityFieldMetaData f: primaryKeyMetadata.getFields()) {
-				vals.add(f.getValue(id));
-			}			
-		} else {
-			vals.add(id);
 		}
-		
-		return vals;
+		for (EntityFieldMetaData f: layout.keyFields) {
+			dest[offset + n++] = f.getValue(id);
+		}
+		return n;
 	}
 	
 	public List<Object> getEntityPKValues(Object entity) {
-		Object id = primaryKeyMetadata.getOwnField().getValue(entity);
+		Object id = pkLayout().idField.getValue(entity);
 		return getIdValues(id);
 	}
+
+	/**
+	 * write values of the primary key columns of the entity into the array.
+	 * 
+	 * @return number of values written
+	 */
+	public int writeEntityPKValues(Object entity, Object[] dest, int offset) {
+		Object id = pkLayout().idField.getValue(entity);
+		return writeIdValues(id, dest, offset);
+	}
+
+	/**
+	 * retrieve values of the partition key columns from the entity
+	 */
+	public List<Object> getEntityPartitionKeyValues(Object entity) {
+		PkLayout layout = pkLayout();
+		Object id = layout.idField.getValue(entity);
+		if (layout.partitionField != null) {
+			Object[] vals = new Object[layout.partitionFields.length];
+			writePartitionKeyValues(layout.partitionField.getValue(id), vals, 0);
+			return Arrays.asList(vals);
+		}
+		return Collections.singletonList(layout.keyFields == null ? id : layout.keyFields[0].getValue(id));
+	}
 	
 	/**
 	 * (p1, p2), p3, p4
@@ -224,6 +442,21 @@ public class EntityTypeMetadata {
 		return this.versionField != null;
 	}
 
+	/**
+	 * @return true if saves are conditional writes guarded by @Version
+	 */
+	public boolean hasConditionalVersion() {
+		return this.versionField != null && versionStrategy == Versioning.Strategy.LWT;
+	}
+
+	public Versioning.Strategy getVersionStrategy() {
+		return versionStrategy;
+	}
+
+	public void setVersionStrategy(Versioning.Strategy versionStrategy) {
+		this.versionStrategy = versionStrategy;
+	}
+
 	public int getTtl() {
 		return ttl;
 	}
@@ -231,4 +464,79 @@ public class EntityTypeMetadata {
 	public void setTtl(int ttl) {
 		this.ttl = ttl;
 	}	
+	/** fields present in the rows described by the columns instance */
+	private static final class MappingPlan {
+		final ColumnDefinitions columns;
+		final List<EntityFieldMetaData> fields;
+
+		MappingPlan(ColumnDefinitions columns, List<EntityFieldMetaData> fields) {
+			this.columns = columns;
+			this.fields = fields;
+		}
+	}
+
+	/**
+	 * Primary key shape resolved once from {@link PrimaryKeyMetadata}:
+	 * column names in bind order and the fields to read the key values from.
+	 */
+	private static final class PkLayout {
+		final List<String> pkColumns;
+		final List<String> partitionColumns;
+		final List<String> clusteringColumns;
+		final Map<String, Integer> positions;
+		// field holding the id on the entity
+		final EntityFieldMetaData idField;
+		// field holding the composite partition key on the id, or null
+		final EntityFieldMetaData partitionField;
+		// fields of the composite partition key, or null
+		final EntityFieldMetaData[] partitionFields;
+		// fields of the compound id following the partition key, or null for a simple id
+		final EntityFieldMetaData[] keyFields;
+
+		PkLayout(PrimaryKeyMetadata pkMeta) {
+			List<String> pk = new ArrayList<String>();
+			List<String> partition = new ArrayList<String>();
+			List<String> clustering = new ArrayList<String>();
+			idField = pkMeta.getOwnField();
+
+			if (pkMeta.hasPartitionKey()) {
+				PrimaryKeyMetadata partitionKey = pkMeta.getPartitionKey();
+				partitionField = partitionKey.getOwnField();
+				partitionFields = partitionKey.getFields().toArray(new EntityFieldMetaData[0]);
+				for (EntityFieldMetaData f: partitionFields) {
+					pk.add(f.getColumnName());
+					partition.add(f.getColumnName());
+				}
+			} else {
+				partitionField = null;
+				partitionFields = null;
+			}
+
+			if (pkMeta.isCompound()) {
+				keyFields = pkMeta.getFields().toArray(new EntityFieldMetaData[0]);
+				for (int i = 0; i < keyFields.length; i++) {
+					String column = keyFields[i].getColumnName();
+					pk.add(column);
+					if (i == 0 && partitionFields == null) {
+						partition.add(column);
+					} else {
+						clustering.add(column);
+					}
+				}
+			} else {
+				keyFields = null;
+				pk.add(idField.getColumnName());
+				partition.add(idField.getColumnName());
+			}
+
+			Map<String, Integer> pos = new HashMap<String, Integer>();
+			for (int i = 0; i < pk.size(); i++) {
+				pos.put(pk.get(i), i);
+			}
+			pkColumns = Collections.unmodifiableList(pk);
+			partitionColumns = Collections.unmodifiableList(partition);
+			clusteringColumns = Collections.unmodifiableList(clustering);
+			positions = pos;
+		}
+	}
 }
@@ -0,0 +1,59 @@
+/*
+ *      Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.meta;
+
+/**
+ * Property of the entity resolved once and held by the caller, so repeated
+ * operations on the property skip the lookup by name.
+ * 
+ * Obtain with MappingSession.property(Entity.class, "name").
+ */
+public final class PropertyRef<T> {
+	private final Class<T> entityClass;
+	private final EntityTypeMetadata entityMetadata;
+	private final EntityFieldMetaData field;
+
+	PropertyRef(Class<T> entityClass, EntityTypeMetadata entityMetadata, EntityFieldMetaData field) {
+		this.entityClass = entityClass;
+		this.entityMetadata = entityMetadata;
+		this.field = field;
+	}
+
+	public Class<T> getEntityClass() {
+		return entityClass;
+	}
+
+	public EntityTypeMetadata getEntityMetadata() {
+		return entityMetadata;
+	}
+
+	public EntityFieldMetaData getField() {
+		return field;
+	}
+
+	public String getName() {
+		return field.getName();
+	}
+
+	public String getColumnName() {
+		return field.getColumnName();
+	}
+
+	@Override
+	public String toString() {
+		return entityClass.getSimpleName() + "." + field.getName();
+	}
+}
@@ -15,12 +15,16 @@
  */
 package com.datastax.driver.mapping.option;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.ConsistencyLevel;
 import com.datastax.driver.core.policies.RetryPolicy;
 
 public class BatchOptions {
 	private ConsistencyLevel consistencyLevel;
 	private RetryPolicy retryPolicy;
+	private BatchStatement.Type batchType = BatchStatement.Type.LOGGED;
+	private int maxStatements = -1;
+	private int maxSizeBytes = -1;
 	
 	/**
 	 * @return the consistencyLevel
@@ -51,4 +55,52 @@ public class BatchOptions {
 		this.retryPolicy = retryPolicy;
 		return this;
 	}
+
+	/**
+	 * @return the batch type, LOGGED by default
+	 */
+	public BatchStatement.Type getBatchType() {
+		return batchType;
+	}
+
+	/**
+	 * @param batchType LOGGED batch is executed as one batch and fails if it
+	 *        exceeds the limits, UNLOGGED and COUNTER batches are split into
+	 *        one batch per partition
+	 */
+	public BatchOptions setBatchType(BatchStatement.Type batchType) {
+		this.batchType = batchType;
+		return this;
+	}
+
+	/**
+	 * @return max number of statements per batch, -1 if not limited
+	 */
+	public int getMaxStatements() {
+		return maxStatements;
+	}
+
+	/**
+	 * @param maxStatements max number of statements per batch
+	 */
+	public BatchOptions setMaxStatements(int maxStatements) {
+		this.maxStatements = maxStatements;
+		return this;
+	}
+
+	/**
+	 * @return max estimated size of a batch in bytes, -1 if not limited
+	 */
+	public int getMaxSizeBytes() {
+		return maxSizeBytes;
+	}
+
+	/**
+	 * @param maxSizeBytes max estimated size of a batch in bytes. Keep it below
+	 *        batch_size_warn_threshold_in_kb of the cluster.
+	 */
+	public BatchOptions setMaxSizeBytes(int maxSizeBytes) {
+		this.maxSizeBytes = maxSizeBytes;
+		return this;
+	}
 }
@@ -0,0 +1,58 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+/**
+ * Options for bulk save and delete of many entities.
+ */
+public class BulkOptions {
+	private int maxInFlight = 128;
+	private WriteOptions writeOptions;
+
+	/**
+	 * @return max number of writes executed concurrently
+	 */
+	public int getMaxInFlight() {
+		return maxInFlight;
+	}
+
+	/**
+	 * @param maxInFlight max number of writes executed concurrently. When the
+	 *        limit is reached the caller is blocked until one write completes.
+	 */
+	public BulkOptions setMaxInFlight(int maxInFlight) {
+		if (maxInFlight < 1) {
+			throw new IllegalArgumentException("maxInFlight must be positive");
+		}
+		this.maxInFlight = maxInFlight;
+		return this;
+	}
+
+	/**
+	 * @return options applied to each write
+	 */
+	public WriteOptions getWriteOptions() {
+		return writeOptions;
+	}
+
+	/**
+	 * @param writeOptions options applied to each write
+	 */
+	public BulkOptions setWriteOptions(WriteOptions writeOptions) {
+		this.writeOptions = writeOptions;
+		return this;
+	}
+}
@@ -0,0 +1,75 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+/**
+ * Options of counter accumulation: increments are summed in memory per row
+ * and counter column and written periodically.
+ */
+public class CounterOptions {
+	private long flushIntervalMillis = 1000;
+	private int maxBatchStatements = 100;
+	private WriteOptions writeOptions;
+
+	/**
+	 * @return interval between flushes in milliseconds
+	 */
+	public long getFlushIntervalMillis() {
+		return flushIntervalMillis;
+	}
+
+	/**
+	 * @param flushIntervalMillis interval between flushes
+	 */
+	public CounterOptions setFlushIntervalMillis(long flushIntervalMillis) {
+		if (flushIntervalMillis < 1) {
+			throw new IllegalArgumentException("flushIntervalMillis must be positive");
+		}
+		this.flushIntervalMillis = flushIntervalMillis;
+		return this;
+	}
+
+	/**
+	 * @return max number of increments in one counter batch
+	 */
+	public int getMaxBatchStatements() {
+		return maxBatchStatements;
+	}
+
+	/**
+	 * @param maxBatchStatements max number of increments in one counter batch
+	 */
+	public CounterOptions setMaxBatchStatements(int maxBatchStatements) {
+		this.maxBatchStatements = maxBatchStatements;
+		return this;
+	}
+
+	/**
+	 * @return consistency level and retry policy of flushed increments
+	 */
+	public WriteOptions getWriteOptions() {
+		return writeOptions;
+	}
+
+	/**
+	 * @param writeOptions consistency level and retry policy of flushed
+	 *        increments, TTL and timestamp are not supported by counters
+	 */
+	public CounterOptions setWriteOptions(WriteOptions writeOptions) {
+		this.writeOptions = writeOptions;
+		return this;
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+/**
+ * Options of micro-batching mode: async saves to the same partition are
+ * collected for a short time and sent as one unlogged batch.
+ */
+public class MicroBatchOptions {
+	private long lingerMicros = 1000;
+	private int maxBatchSize = 50;
+
+	/**
+	 * @return time the first save of a partition waits for others
+	 */
+	public long getLingerMicros() {
+		return lingerMicros;
+	}
+
+	/**
+	 * @param lingerMicros time the first save of a partition waits for
+	 *        others, 1 millisecond by default
+	 */
+	public MicroBatchOptions setLingerMicros(long lingerMicros) {
+		if (lingerMicros < 0) {
+			throw new IllegalArgumentException("lingerMicros must not be negative");
+		}
+		this.lingerMicros = lingerMicros;
+		return this;
+	}
+
+	/**
+	 * @return number of statements which sends the batch without waiting
+	 */
+	public int getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * @param maxBatchSize number of statements which sends the batch without
+	 *        waiting for the linger to elapse
+	 */
+	public MicroBatchOptions setMaxBatchSize(int maxBatchSize) {
+		if (maxBatchSize < 1) {
+			throw new IllegalArgumentException("maxBatchSize must be positive");
+		}
+		this.maxBatchSize = maxBatchSize;
+		return this;
+	}
+}
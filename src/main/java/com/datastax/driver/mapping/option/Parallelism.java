@@ -0,0 +1,74 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Options to map large collections of rows in parallel. Rows are split across
+ * the ForkJoinPool and mapped independently, the original order is kept.
+ * Inputs smaller than the threshold are mapped serially on the calling thread.
+ */
+public class Parallelism {
+	private ForkJoinPool pool;
+	private int threshold = 2048;
+	private int chunkSize = -1;
+
+	/**
+	 * @return the pool to run mapping tasks. Defaults to common pool.
+	 */
+	public ForkJoinPool getPool() {
+		return pool != null ? pool : ForkJoinPool.commonPool();
+	}
+
+	/**
+	 * @param pool the pool to run mapping tasks
+	 */
+	public Parallelism setPool(ForkJoinPool pool) {
+		this.pool = pool;
+		return this;
+	}
+
+	/**
+	 * @return minimum number of rows to map in parallel
+	 */
+	public int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * @param threshold below this number of rows mapping is serial
+	 */
+	public Parallelism setThreshold(int threshold) {
+		this.threshold = threshold;
+		return this;
+	}
+
+	/**
+	 * @return number of rows mapped by a single task, -1 to derive from the pool parallelism
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * @param chunkSize number of rows mapped by a single task
+	 */
+	public Parallelism setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+		return this;
+	}
+}
@@ -0,0 +1,122 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.policies.RetryPolicy;
+import com.datastax.driver.mapping.scan.ScanCheckpoint;
+
+/**
+ * Options to scan the whole table by token ranges.
+ */
+public class ScanOptions {
+	private int parallelism = 4;
+	private int splitsPerRange = 1;
+	private int fetchSize = -1;
+	private ConsistencyLevel consistencyLevel;
+	private RetryPolicy retryPolicy;
+	private ScanCheckpoint checkpoint;
+
+	/**
+	 * @return number of token ranges scanned concurrently
+	 */
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * @param parallelism number of token ranges scanned concurrently
+	 */
+	public ScanOptions setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	/**
+	 * @return number of subranges each token range of the ring is split into
+	 */
+	public int getSplitsPerRange() {
+		return splitsPerRange;
+	}
+
+	/**
+	 * @param splitsPerRange number of subranges each token range of the ring is split into
+	 */
+	public ScanOptions setSplitsPerRange(int splitsPerRange) {
+		this.splitsPerRange = splitsPerRange;
+		return this;
+	}
+
+	/**
+	 * @return page size for range queries, -1 to use the driver default
+	 */
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	/**
+	 * @param fetchSize page size for range queries
+	 */
+	public ScanOptions setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+		return this;
+	}
+
+	/**
+	 * @return the consistencyLevel
+	 */
+	public ConsistencyLevel getConsistencyLevel() {
+		return consistencyLevel;
+	}
+
+	/**
+	 * @param consistencyLevel the consistencyLevel to set
+	 */
+	public ScanOptions setConsistencyLevel(ConsistencyLevel consistencyLevel) {
+		this.consistencyLevel = consistencyLevel;
+		return this;
+	}
+
+	/**
+	 * @return the retryPolicy
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * @param retryPolicy the retryPolicy to set
+	 */
+	public ScanOptions setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+		return this;
+	}
+
+	/**
+	 * @return checkpoint to record completed ranges, may be null
+	 */
+	public ScanCheckpoint getCheckpoint() {
+		return checkpoint;
+	}
+
+	/**
+	 * @param checkpoint records completed ranges so interrupted scan can be resumed
+	 */
+	public ScanOptions setCheckpoint(ScanCheckpoint checkpoint) {
+		this.checkpoint = checkpoint;
+		return this;
+	}
+}
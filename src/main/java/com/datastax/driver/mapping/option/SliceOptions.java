@@ -0,0 +1,145 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.policies.RetryPolicy;
+
+/**
+ * Clustering range, order and limit to read a slice of the partition.
+ * Bounds are prefixes of clustering columns values in the order the columns
+ * are declared in the primary key.
+ */
+public class SliceOptions {
+	public enum Order {ASC, DESC}
+
+	private Object[] from;
+	private boolean fromInclusive = true;
+	private Object[] to;
+	private boolean toInclusive = true;
+	private Order order;
+	private int limit = -1;
+	private ConsistencyLevel consistencyLevel;
+	private RetryPolicy retryPolicy;
+
+	/**
+	 * @return lower bound of clustering columns or null if unbounded
+	 */
+	public Object[] getFrom() {
+		return from;
+	}
+
+	/**
+	 * @param from values for the first clustering columns. Inclusive by default.
+	 */
+	public SliceOptions setFrom(Object... from) {
+		this.from = from;
+		return this;
+	}
+
+	public boolean isFromInclusive() {
+		return fromInclusive;
+	}
+
+	public SliceOptions setFromInclusive(boolean fromInclusive) {
+		this.fromInclusive = fromInclusive;
+		return this;
+	}
+
+	/**
+	 * @return upper bound of clustering columns or null if unbounded
+	 */
+	public Object[] getTo() {
+		return to;
+	}
+
+	/**
+	 * @param to values for the first clustering columns. Inclusive by default.
+	 */
+	public SliceOptions setTo(Object... to) {
+		this.to = to;
+		return this;
+	}
+
+	public boolean isToInclusive() {
+		return toInclusive;
+	}
+
+	public SliceOptions setToInclusive(boolean toInclusive) {
+		this.toInclusive = toInclusive;
+		return this;
+	}
+
+	/**
+	 * @return order of rows or null for the clustering order of the table
+	 */
+	public Order getOrder() {
+		return order;
+	}
+
+	/**
+	 * @param order ASC or DESC on the first clustering column
+	 */
+	public SliceOptions setOrder(Order order) {
+		this.order = order;
+		return this;
+	}
+
+	/**
+	 * @return max number of rows, -1 if not limited
+	 */
+	public int getLimit() {
+		return limit;
+	}
+
+	/**
+	 * @param limit max number of rows
+	 */
+	public SliceOptions setLimit(int limit) {
+		this.limit = limit;
+		return this;
+	}
+
+	/**
+	 * @return the consistencyLevel
+	 */
+	public ConsistencyLevel getConsistencyLevel() {
+		return consistencyLevel;
+	}
+
+	/**
+	 * @param consistencyLevel the consistencyLevel to set
+	 */
+	public SliceOptions setConsistencyLevel(ConsistencyLevel consistencyLevel) {
+		this.consistencyLevel = consistencyLevel;
+		return this;
+	}
+
+	/**
+	 * @return the retryPolicy
+	 */
+	public RetryPolicy getRetryPolicy() {
+		return retryPolicy;
+	}
+
+	/**
+	 * @param retryPolicy the retryPolicy to set
+	 */
+	public SliceOptions setRetryPolicy(RetryPolicy retryPolicy) {
+		this.retryPolicy = retryPolicy;
+		return this;
+	}
+}
@@ -0,0 +1,91 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.option;
+
+/**
+ * Options of write-behind mode: saves are buffered per primary key and
+ * flushed in the background.
+ */
+public class WriteBehindOptions {
+	private long flushIntervalMillis = 1000;
+	private int maxBuffered = 10000;
+	private int maxBatchStatements = 100;
+	private int maxBatchSizeBytes = 5 * 1024;
+
+	/**
+	 * @return interval between background flushes in milliseconds
+	 */
+	public long getFlushIntervalMillis() {
+		return flushIntervalMillis;
+	}
+
+	/**
+	 * @param flushIntervalMillis interval between background flushes
+	 */
+	public WriteBehindOptions setFlushIntervalMillis(long flushIntervalMillis) {
+		if (flushIntervalMillis < 1) {
+			throw new IllegalArgumentException("flushIntervalMillis must be positive");
+		}
+		this.flushIntervalMillis = flushIntervalMillis;
+		return this;
+	}
+
+	/**
+	 * @return number of buffered entities which triggers a flush
+	 */
+	public int getMaxBuffered() {
+		return maxBuffered;
+	}
+
+	/**
+	 * @param maxBuffered number of buffered entities which triggers a flush
+	 *        before the interval elapses
+	 */
+	public WriteBehindOptions setMaxBuffered(int maxBuffered) {
+		this.maxBuffered = maxBuffered;
+		return this;
+	}
+
+	/**
+	 * @return max number of statements in one unlogged batch
+	 */
+	public int getMaxBatchStatements() {
+		return maxBatchStatements;
+	}
+
+	/**
+	 * @param maxBatchStatements max number of statements in one unlogged batch
+	 */
+	public WriteBehindOptions setMaxBatchStatements(int maxBatchStatements) {
+		this.maxBatchStatements = maxBatchStatements;
+		return this;
+	}
+
+	/**
+	 * @return max estimated size of one unlogged batch in bytes
+	 */
+	public int getMaxBatchSizeBytes() {
+		return maxBatchSizeBytes;
+	}
+
+	/**
+	 * @param maxBatchSizeBytes max estimated size of one unlogged batch in bytes
+	 */
+	public WriteBehindOptions setMaxBatchSizeBytes(int maxBatchSizeBytes) {
+		this.maxBatchSizeBytes = maxBatchSizeBytes;
+		return this;
+	}
+}
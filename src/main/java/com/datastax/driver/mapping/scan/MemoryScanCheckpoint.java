@@ -0,0 +1,56 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.scan;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.datastax.driver.core.TokenRange;
+
+/**
+ * ScanCheckpoint keeping completed ranges in memory. To resume in another
+ * process persist getCompleted() and pass it to the constructor.
+ */
+public class MemoryScanCheckpoint implements ScanCheckpoint {
+
+	private final Set<String> completed = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	public MemoryScanCheckpoint() {}
+
+	/**
+	 * @param completed ranges completed by the previous run
+	 */
+	public MemoryScanCheckpoint(Collection<String> completed) {
+		this.completed.addAll(completed);
+	}
+
+	public boolean isCompleted(TokenRange range) {
+		return completed.contains(range.toString());
+	}
+
+	public void markCompleted(TokenRange range) {
+		completed.add(range.toString());
+	}
+
+	/**
+	 * @return string representation of completed ranges
+	 */
+	public Set<String> getCompleted() {
+		return Collections.unmodifiableSet(completed);
+	}
+}
@@ -0,0 +1,39 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.scan;
+
+import com.datastax.driver.core.TokenRange;
+
+/**
+ * Records token ranges completed by a table scan. Ranges already completed
+ * are skipped, so a scan interrupted by failure or restart resumes where it
+ * left off. Implementations must be thread safe.
+ * <p>
+ * Ranges are derived from the cluster token ring, resuming is reliable as
+ * long as the ring and splitsPerRange did not change between the runs.
+ */
+public interface ScanCheckpoint {
+
+	/**
+	 * @return true if the range has been scanned already
+	 */
+	boolean isCompleted(TokenRange range);
+
+	/**
+	 * Called once all the rows of the range have been consumed.
+	 */
+	void markCompleted(TokenRange range);
+}
@@ -0,0 +1,167 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.scan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import com.datastax.driver.core.TokenRange;
+import com.datastax.driver.mapping.EntityTypeParser;
+import com.datastax.driver.mapping.builder.MappingBuilder;
+import com.datastax.driver.mapping.meta.EntityFieldMetaData;
+import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.option.ScanOptions;
+
+/**
+ * Scans the whole table splitting the token ring into subranges. Subranges
+ * are queried in parallel with prepared token range queries, rows are mapped
+ * and handed to the consumer as they are paged in. Completed subranges are
+ * recorded in the ScanCheckpoint if one is provided.
+ * <p>
+ * The consumer is invoked concurrently from scanning threads and must be
+ * thread safe.
+ */
+public class TokenRangeScanner<T> {
+    private static final Logger log = Logger.getLogger(TokenRangeScanner.class.getName());
+
+    private final Session     session;
+    private final String      keyspace;
+    private final Class<T>    clazz;
+    private final ScanOptions options;
+
+    public TokenRangeScanner(Session session, String keyspace, Class<T> clazz, ScanOptions options) {
+        this.session = session;
+        this.keyspace = keyspace;
+        this.clazz = clazz;
+        this.options = options != null ? options : new ScanOptions();
+    }
+
+    /**
+     * Run the scan and block until all ranges are consumed.
+     * 
+     * @param consumer receives every mapped entity
+     * @return number of rows scanned by this run
+     */
+    public long scan(final Consumer<T> consumer) {
+        final PreparedStatement ps = MappingBuilder.prepareScan(clazz, keyspace, session);
+        final EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+        final ScanCheckpoint checkpoint = options.getCheckpoint();
+
+        List<TokenRange> ranges = split();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, options.getParallelism()), new ScanThreadFactory());
+        List<Future<Long>> futures = new ArrayList<Future<Long>>(ranges.size());
+        try {
+            for (final TokenRange range : ranges) {
+                if (checkpoint != null && checkpoint.isCompleted(range)) {
+                    continue;
+                }
+                futures.add(executor.submit(new Callable<Long>() {
+                    public Long call() throws Exception {
+                        long count = scanRange(ps, range, entityMetadata, consumer);
+                        if (checkpoint != null) {
+                            checkpoint.markCompleted(range);
+                        }
+                        return count;
+                    }
+                }));
+            }
+
+            long total = 0;
+            for (Future<Long> f : futures) {
+                total += f.get();
+            }
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Scan of " + entityMetadata.getTableName() + " interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            log.warning("Scan of " + entityMetadata.getTableName() + " failed: " + cause);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Split the token ring into non wrapping subranges. The order is stable
+     * for the same ring.
+     */
+    protected List<TokenRange> split() {
+        int splits = Math.max(1, options.getSplitsPerRange());
+        List<TokenRange> result = new ArrayList<TokenRange>();
+        for (TokenRange range : session.getCluster().getMetadata().getTokenRanges()) {
+            List<TokenRange> subranges = splits > 1 ? range.splitEvenly(splits) : Collections.singletonList(range);
+            for (TokenRange subrange : subranges) {
+                result.addAll(subrange.unwrap());
+            }
+        }
+        return result;
+    }
+
+    private long scanRange(PreparedStatement ps, TokenRange range, EntityTypeMetadata entityMetadata, Consumer<T> consumer) {
+        BoundStatement bs = ps.bind().setToken(0, range.getStart()).setToken(1, range.getEnd());
+        if (options.getFetchSize() > 0) {
+            bs.setFetchSize(options.getFetchSize());
+        }
+        if (options.getConsistencyLevel() != null) {
+            bs.setConsistencyLevel(options.getConsistencyLevel());
+        }
+        if (options.getRetryPolicy() != null) {
+            bs.setRetryPolicy(options.getRetryPolicy());
+        }
+
+        ResultSet rs = session.execute(bs);
+        List<EntityFieldMetaData> present = entityMetadata.getFieldsPresentIn(rs.getColumnDefinitions());
+        long count = 0;
+        for (Row row : rs) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new RuntimeException("Scan of range " + range + " interrupted");
+            }
+            consumer.accept(MappingBuilder.getFromRow(clazz, row, entityMetadata, present));
+            count++;
+        }
+        return count;
+    }
+
+    private static class ScanThreadFactory implements ThreadFactory {
+        private static final AtomicInteger seq = new AtomicInteger();
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "mapping-scan-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
+}
@@ -16,8 +16,22 @@
 package com.datastax.driver.mapping.schemasync;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
 
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ColumnMetadata;
@@ -33,25 +47,45 @@ import com.datastax.driver.mapping.meta.EntityTypeMetadata;
  * Static methods to synchronize entities' definition with Cassandra tables
  */
 public final class SchemaSync {
+	private static final Logger log = Logger.getLogger(SchemaSync.class.getName());
+	// one lock per keyspace.table, unrelated tables are synchronized in parallel
+	private static final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<String, Object>();
 	
 	private SchemaSync() {}
 	
-    public static synchronized void sync(String keyspace, Session session, Class<?> clazz) {
+    public static void sync(String keyspace, Session session, Class<?> clazz) {
     	sync(keyspace, session, clazz, null);    
     }
     
-    public static synchronized void sync(String keyspace, Session session, Class<?> clazz, SyncOptions syncOptions) {
+    public static void sync(String keyspace, Session session, Class<?> clazz, SyncOptions syncOptions) {
     	
     	EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
     	if (entityMetadata.isSynced(keyspace)) return;
 
-    	List<RegularStatement> statements = buildSyncStatements(keyspace, session, entityMetadata, syncOptions);
+    	synchronized (lockFor(keyspace, entityMetadata.getTableName())) {
+    		if (entityMetadata.isSynced(keyspace)) return;
+
+    		List<RegularStatement> statements = buildSyncStatements(keyspace, session, entityMetadata, syncOptions);
     	
-    	for (RegularStatement stmt: statements) {
-    		session.execute(stmt);
-    	}
+    		for (RegularStatement stmt: statements) {
+    			session.execute(stmt);
+    		}
     	
-    	entityMetadata.markSynced(keyspace);
+    		entityMetadata.markSynced(keyspace);
+    	}
+    }
+
+    private static Object lockFor(String keyspace, String table) {
+        String key = (keyspace + "." + table).toLowerCase();
+        Object lock = locks.get(key);
+        if (lock == null) {
+            Object created = new Object();
+            lock = locks.putIfAbsent(key, created);
+            if (lock == null) {
+                lock = created;
+            }
+        }
+        return lock;
     }
 
     
@@ -73,11 +107,153 @@ public final class SchemaSync {
         return getScript(keyspace, session, clazz, null);
     }
 
-    public static void sync(String keyspace, Session session, Class<?>[] classes, SyncOptions syncOptions) {
-    	for (Class<?> clazz: classes) {
-    		sync(keyspace, session, clazz, syncOptions);
-    	}
-    } 	
+    /**
+     * Synchronize many entities at once. Diffs are computed against one
+     * snapshot of the keyspace metadata and DDL for different tables runs
+     * concurrently, up to SyncOptions.getParallelism() tables at a time.
+     * Statements of one table run in order. Schema agreement is awaited once
+     * after all tables are done, up to SyncOptions.getSchemaAgreementWaitMillis().
+     * If it is not reached the tables are left not synced and
+     * IllegalStateException is thrown. To skip the wait of the driver after each
+     * DDL statement as well build the Cluster with
+     * withMaxSchemaAgreementWaitSeconds(0).
+     */
+    public static void sync(final String keyspace, final Session session, Class<?>[] classes, SyncOptions syncOptions) {
+        KeyspaceMetadata keyspaceMetadata = session.getCluster().getMetadata().getKeyspace(keyspace);
+        Map<String, List<RegularStatement>> statements = new LinkedHashMap<String, List<RegularStatement>>();
+        Map<String, List<EntityTypeMetadata>> entities = new HashMap<String, List<EntityTypeMetadata>>();
+        List<Class<?>> deferred = new ArrayList<Class<?>>();
+
+        for (Class<?> clazz: classes) {
+            EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+            if (entityMetadata.isSynced(keyspace)) continue;
+            String table = entityMetadata.getTableName().toLowerCase();
+            if (entities.containsKey(table)) {
+                // the diff depends on the DDL of the first entity of the table
+                deferred.add(clazz);
+                continue;
+            }
+            entities.put(table, new ArrayList<EntityTypeMetadata>(Collections.singletonList(entityMetadata)));
+            statements.put(table, buildSyncStatements(keyspace, keyspaceMetadata, entityMetadata, syncOptions));
+        }
+
+        Iterator<Map.Entry<String, List<RegularStatement>>> it = statements.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<String, List<RegularStatement>> entry = it.next();
+            if (entry.getValue().isEmpty()) {
+                markSynced(keyspace, entities.get(entry.getKey()));
+                it.remove();
+            }
+        }
+
+        if (!statements.isEmpty()) {
+            session.execute("USE "+keyspace);
+            SyncOptions options = syncOptions == null ? new SyncOptions() : syncOptions;
+            final long waitMillis = options.getSchemaAgreementWaitMillis();
+            int parallelism = options.getParallelism();
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, statements.size())), new SyncThreadFactory());
+            Map<String, Future<Boolean>> futures = new LinkedHashMap<String, Future<Boolean>>();
+            RuntimeException failure = null;
+            boolean agreed = true;
+            try {
+                for (Map.Entry<String, List<RegularStatement>> entry: statements.entrySet()) {
+                    final List<RegularStatement> tableStatements = entry.getValue();
+                    final List<EntityTypeMetadata> tableEntities = entities.get(entry.getKey());
+                    futures.put(entry.getKey(), executor.submit(new Callable<Boolean>() {
+                        public Boolean call() throws Exception {
+                            synchronized (lockFor(keyspace, tableEntities.get(0).getTableName())) {
+                                if (tableEntities.get(0).isSynced(keyspace)) {
+                                    // synced by another thread meanwhile
+                                    return true;
+                                }
+                                boolean agreed = executeInOrder(session, tableStatements, waitMillis);
+                                markSynced(keyspace, tableEntities);
+                                return agreed;
+                            }
+                        }
+                    }));
+                }
+                for (Map.Entry<String, Future<Boolean>> entry: futures.entrySet()) {
+                    try {
+                        agreed &= entry.getValue().get();
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        log.warning("Sync of table " + entry.getKey() + " failed: " + cause);
+                        if (failure == null) {
+                            failure = cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Sync of keyspace " + keyspace + " interrupted", e);
+            } finally {
+                executor.shutdownNow();
+            }
+
+            if (!agreed) {
+                try {
+                    waitForSchemaAgreement(session.getCluster(), waitMillis);
+                } catch (RuntimeException e) {
+                    // statements may not have reached all nodes, sync again on next use
+                    for (List<EntityTypeMetadata> tableEntities: entities.values()) {
+                        for (EntityTypeMetadata entityMetadata: tableEntities) {
+                            entityMetadata.markUnSynced(keyspace);
+                        }
+                    }
+                    throw e;
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        for (Class<?> clazz: deferred) {
+            sync(keyspace, session, clazz, syncOptions);
+        }
+    }
+
+    /**
+     * Execute statements of one table in order. A statement depending on the
+     * previous one waits for schema agreement first.
+     * 
+     * @return true if schema was in agreement after the last statement
+     */
+    private static boolean executeInOrder(Session session, List<RegularStatement> statements, long waitMillis) {
+        boolean agreed = true;
+        for (RegularStatement stmt: statements) {
+            if (!agreed) {
+                waitForSchemaAgreement(session.getCluster(), waitMillis);
+            }
+            agreed = session.execute(stmt).getExecutionInfo().isSchemaInAgreement();
+        }
+        return agreed;
+    }
+
+    /**
+     * @throws IllegalStateException if schema agreement is not reached in time
+     */
+    private static void waitForSchemaAgreement(Cluster cluster, long waitMillis) {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (!cluster.getMetadata().checkSchemaAgreement()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new IllegalStateException("Schema agreement not reached in " + waitMillis + " ms");
+            }
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Wait for schema agreement interrupted", e);
+            }
+        }
+    }
+
+    private static void markSynced(String keyspace, List<EntityTypeMetadata> entities) {
+        for (EntityTypeMetadata entityMetadata: entities) {
+            entityMetadata.markSynced(keyspace);
+        }
+    }
 
     public static void drop(String keyspace, Session session, Class<?>[] classes) {
     	for (Class<?> clazz: classes) {
@@ -85,27 +261,30 @@ public final class SchemaSync {
     	}
     }
     
-    public static synchronized void drop(String keyspace, Session session, Class<?> clazz) {
+    public static void drop(String keyspace, Session session, Class<?> clazz) {
     	EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
-    	entityMetadata.markUnSynced(keyspace);
     	String table = entityMetadata.getTableName();
+
+    	synchronized (lockFor(keyspace, table)) {
+    		entityMetadata.markUnSynced(keyspace);
     	
-    	Cluster cluster = session.getCluster();
-    	KeyspaceMetadata keyspaceMetadata = cluster.getMetadata().getKeyspace(keyspace);
-    	TableMetadata tableMetadata = keyspaceMetadata.getTable(table);
+    		Cluster cluster = session.getCluster();
+    		KeyspaceMetadata keyspaceMetadata = cluster.getMetadata().getKeyspace(keyspace);
+    		TableMetadata tableMetadata = keyspaceMetadata.getTable(table);
     	
-    	if (tableMetadata != null) {
-    	    session.execute("USE "+keyspace);
+    		if (tableMetadata != null) {
+    		    session.execute("USE "+keyspace);
     	    
-    		// drop indexes
-    		/*for (ColumnMetadata columnMetadata: tableMetadata.getColumns()) {
-    			if (columnMetadata.getIndex() != null) {
-    				session.execute(new DropIndex(keyspace, columnMetadata.getIndex().getName()));
-    			}
-    		}*/
+    			// drop indexes
+    			/*for (ColumnMetadata columnMetadata: tableMetadata.getColumns()) {
+    				if (columnMetadata.getIndex() != null) {
+    					session.execute(new DropIndex(keyspace, columnMetadata.getIndex().getName()));
+    				}
+    			}*/
     		
-    		// drop table
-    		session.execute(new DropTable(keyspace, entityMetadata));
+    			// drop table
+    			session.execute(new DropTable(keyspace, entityMetadata));
+    		}
     	}
 	}
     
@@ -119,21 +298,29 @@ public final class SchemaSync {
      * @return RegularStatements
      */
     public static List<RegularStatement> buildSyncStatements(String keyspace, Session session, EntityTypeMetadata entityMetadata, SyncOptions syncOptions) {
-        String table = entityMetadata.getTableName();
-        
         session.execute("USE "+keyspace);
         Cluster cluster = session.getCluster();
         KeyspaceMetadata keyspaceMetadata = cluster.getMetadata().getKeyspace(keyspace);
-        TableMetadata tableMetadata = keyspaceMetadata.getTable(table);
-        
-        List<RegularStatement> statements = new ArrayList<RegularStatement>();
+        return buildSyncStatements(keyspace, keyspaceMetadata, entityMetadata, syncOptions);
+    }    
+
+    /**
+     * Generate alter, drop or create statements for the given Entity against
+     * the snapshot of keyspace metadata. Nothing is executed.
+     *  
+     * @param keyspace
+     * @param keyspaceMetadata
+     * @param entityMetadata
+     * @param syncOptions
+     * @return RegularStatements
+     */
+    public static List<RegularStatement> buildSyncStatements(String keyspace, KeyspaceMetadata keyspaceMetadata, EntityTypeMetadata entityMetadata, SyncOptions syncOptions) {
+        TableMetadata tableMetadata = keyspaceMetadata == null ? null : keyspaceMetadata.getTable(entityMetadata.getTableName());
         
         if (tableMetadata == null) {
-            statements = createTableStatements(keyspace, entityMetadata);
-        } else {
-            statements = alterTableStatements(keyspace, session, entityMetadata, syncOptions);
+            return createTableStatements(keyspace, entityMetadata);
         }
-        return statements;
+        return alterTableStatements(keyspace, tableMetadata, entityMetadata, syncOptions);
     }    
     
     /**
@@ -165,7 +352,7 @@ public final class SchemaSync {
      * @param class the class to generate statements for or indexed
      * @return a new {@code List<RegularStatement>}.
      */
-    private static <T> List<RegularStatement> alterTableStatements(String keyspace, Session session, EntityTypeMetadata entityMetadata, SyncOptions syncOptions) {
+    private static <T> List<RegularStatement> alterTableStatements(String keyspace, TableMetadata tableMetadata, EntityTypeMetadata entityMetadata, SyncOptions syncOptions) {
     	
     	boolean doNotAddCols  = false;
     	boolean doDropCols  = true;
@@ -180,11 +367,6 @@ public final class SchemaSync {
     	
     	// get EntityTypeMetadata
     	String table = entityMetadata.getTableName();
-    	
-    	// get TableMetadata - requires connection to cassandra
-    	Cluster cluster = session.getCluster();
-    	KeyspaceMetadata keyspaceMetadata = cluster.getMetadata().getKeyspace(keyspace);
-    	TableMetadata tableMetadata = keyspaceMetadata.getTable(table);    	
   
     	// build statements for a new column or a columns with changed datatype.
     	for (EntityFieldMetaData field: entityMetadata.getFields()) {
@@ -272,7 +454,15 @@ public final class SchemaSync {
     	}
     	
     	return statements;
-    }    
-    
- 
+    }
+
+    private static class SyncThreadFactory implements ThreadFactory {
+        private static final AtomicInteger seq = new AtomicInteger();
+
+        public Thread newThread(Runnable r) {
+            Thread t = new Thread(r, "mapping-schema-sync-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        }
+    }
 }
@@ -35,6 +35,10 @@ public class SyncOptions {
 
 	private Map<Class<?>, List<SyncOptionTypes>> entityOptions = new HashMap<Class<?>, List<SyncOptionTypes>>();
 	private List<SyncOptionTypes> globalOptions = new ArrayList<SyncOptionTypes>();
+	private int parallelism = 8;
+	private long schemaAgreementWaitMillis = 10000;
+	// changed by every modification, sessions cache their sync decisions per version
+	private volatile int version;
 
 	public SyncOptions() {}
 
@@ -50,6 +54,7 @@ public class SyncOptions {
 	 */
 	public SyncOptions add(SyncOptionTypes type) {
 		globalOptions.add(type);
+		version++;
 		return this;
 	}
 
@@ -67,6 +72,7 @@ public class SyncOptions {
 			entityOptions.put(clazz, opts);
 		}
 		opts.add(type);
+		version++;
 		return this;
 	}
 
@@ -79,6 +85,7 @@ public class SyncOptions {
 	 */
 	public SyncOptions doSync(Class<?> clazz) {
 		entityOptions.put(clazz, new ArrayList<SyncOptionTypes>());
+		version++;
 		return this;
 	}
 
@@ -119,6 +126,46 @@ public class SyncOptions {
 		return entityOptions;
 	}
 	
+	/**
+	 * Max number of tables altered concurrently when many entities are
+	 * synchronized at once, default 8.
+	 * 
+	 * @param parallelism number of tables
+	 * @return this
+	 */
+	public SyncOptions setParallelism(int parallelism) {
+		this.parallelism = parallelism;
+		return this;
+	}
+
+	public int getParallelism() {
+		return parallelism;
+	}
+
+	/**
+	 * Max time to wait for schema agreement after the tables are altered,
+	 * default 10000 ms. Sync fails if the schema is not in agreement by then.
+	 * 
+	 * @param schemaAgreementWaitMillis time in milliseconds
+	 * @return this
+	 */
+	public SyncOptions setSchemaAgreementWaitMillis(long schemaAgreementWaitMillis) {
+		this.schemaAgreementWaitMillis = schemaAgreementWaitMillis;
+		return this;
+	}
+
+	public long getSchemaAgreementWaitMillis() {
+		return schemaAgreementWaitMillis;
+	}
+
+	/**
+	 * @return number changed by every modification made through the methods
+	 *         of this class, lists returned by the getters are not tracked
+	 */
+	public int getVersion() {
+		return version;
+	}
+
 	public boolean isDoNotSync(Class<?> clazz) {
 		return getOptions(clazz).contains(SyncOptionTypes.DoNotSync);
 	}
@@ -16,13 +16,17 @@
 package com.datastax.driver.mapping;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
@@ -45,6 +49,7 @@ import com.datastax.driver.mapping.entity.SimpleKey;
 import com.datastax.driver.mapping.meta.EntityFieldMetaData;
 import com.datastax.driver.mapping.meta.EntityTypeMetadata;
 import com.datastax.driver.mapping.meta.PrimaryKeyMetadata;
+import com.datastax.driver.mapping.schemasync.SyncOptions;
 
 public class EntityTypeParserTest {
 	
@@ -222,4 +227,79 @@ public class EntityTypeParserTest {
 		assertEquals("entity_with_enum", meta.getTableName());
 		assertEquals(2, meta.getFields().size());
 	}	
+
+	@Test
+	public void testWriteIdValuesCompoundKey() {
+		SimpleKey sk = new SimpleKey();
+		sk.setName("name");
+		sk.setRank(10);
+		
+		CompositeKey id = new CompositeKey();
+		Date date = new Date();
+		id.setKey(sk);
+		id.setCreated(date);
+		id.setEmail("email");
+		
+		EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(EntityWithCompositeKey.class);
+		assertEquals(6, meta.getPkColumnCount());
+		assertEquals(meta.getPkColumns().size(), meta.getPartitionKeyColumns().size() + meta.getClusteringColumns().size());
+		
+		Object[] vals = new Object[meta.getPkColumnCount() + 1];
+		vals[0] = "delta";
+		assertEquals(6, meta.writeIdValues(id, vals, 1));
+		assertEquals("delta", vals[0]);
+		assertEquals(meta.getIdValues(id), Arrays.asList(vals).subList(1, vals.length));
+		assertEquals("name", vals[1]);
+		assertEquals(10, vals[2]);
+		assertEquals(date, vals[5]);
+		assertEquals("email", vals[6]);
+		
+		Object[] partition = new Object[meta.getPartitionKeyColumns().size()];
+		assertEquals(partition.length, meta.writePartitionKeyValues(sk, partition, 0));
+		assertEquals(meta.getIdValues(id).subList(0, partition.length), Arrays.asList(partition));
+	}
+
+	@Test
+	public void testRemoveInvalidatesMetadataAndSync() {
+		EntityTypeMetadata simple = EntityTypeParser.getEntityMetadata(Simple.class);
+		EntityTypeMetadata withKey = EntityTypeParser.getEntityMetadata(EntityWithKey.class);
+		assertSame(simple, EntityTypeParser.getEntityMetadata(Simple.class));
+		simple.markSynced("ks");
+
+		MappingSession m = new MappingSession("ks", null, SyncOptions.withOptions().doNotSync());
+		m.maybeSync(Simple.class);
+		assertTrue(m.syncStates.get(Simple.class).isValid(EntityTypeMetadata.getSyncEpoch(), m.getSyncOptions()));
+
+		// remove re-parses the class and makes sessions check the sync again
+		EntityTypeParser.remove(Simple.class);
+		EntityTypeMetadata reparsed = EntityTypeParser.getEntityMetadata(Simple.class);
+		assertNotSame(simple, reparsed);
+		assertFalse(reparsed.isSynced("ks"));
+		assertEquals(simple.getTableName(), reparsed.getTableName());
+		assertSame(withKey, EntityTypeParser.getEntityMetadata(EntityWithKey.class));
+		assertFalse(m.syncStates.get(Simple.class).isValid(EntityTypeMetadata.getSyncEpoch(), m.getSyncOptions()));
+
+		m.maybeSync(Simple.class);
+		assertTrue(m.syncStates.get(Simple.class).isValid(EntityTypeMetadata.getSyncEpoch(), m.getSyncOptions()));
+
+		// removeAll discards every class
+		EntityTypeParser.removeAll();
+		assertNotSame(withKey, EntityTypeParser.getEntityMetadata(EntityWithKey.class));
+		assertNotSame(reparsed, EntityTypeParser.getEntityMetadata(Simple.class));
+		assertFalse(m.syncStates.get(Simple.class).isValid(EntityTypeMetadata.getSyncEpoch(), m.getSyncOptions()));
+	}
+
+	@Test
+	public void testGetFieldMetadataIgnoresDefaultLocale() {
+		Locale saved = Locale.getDefault();
+		Locale.setDefault(new Locale("tr", "TR"));
+		try {
+			EntityTypeParser.remove(Simple.class);
+			EntityTypeMetadata meta = EntityTypeParser.getEntityMetadata(Simple.class);
+			assertEquals("id", meta.getPkColumns().get(0));
+			assertNotNull(meta.getFieldMetadata("TIMESTAMP"));
+		} finally {
+			Locale.setDefault(saved);
+		}
+	}
 }
@@ -15,6 +15,10 @@
  */
 package com.datastax.driver.mapping;
 
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Date;
@@ -28,9 +32,11 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertFalse;
@@ -68,9 +74,11 @@ import com.datastax.driver.mapping.entity.Month;
 import com.datastax.driver.mapping.entity.Page;
 import com.datastax.driver.mapping.entity.Simple;
 import com.datastax.driver.mapping.entity.SimpleKey;
+import com.datastax.driver.mapping.option.ReadOptions;
 import com.datastax.driver.mapping.option.WriteOptions;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ListenableFuture;
 
 public class MappingSessionAsyncTest {
 
@@ -924,4 +932,71 @@ public class MappingSessionAsyncTest {
         
     }	
 	
+
+	@Test
+	public void singleFlightGetTest() throws Exception {
+		UUID uuid = UUID.randomUUID();
+		EntityWithIndexes obj = new EntityWithIndexes();
+		obj.setCount(100);
+		obj.setEmail("email@at");
+		obj.setName("test");
+		obj.setTimeStamp(new Date());
+		obj.setUuid(uuid);
+		target.save(obj);
+
+		// count statements executed through the session
+		final AtomicInteger queries = new AtomicInteger();
+		Session counting = (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[] {Session.class}, new InvocationHandler() {
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+				if (method.getName().startsWith("execute")) {
+					queries.incrementAndGet();
+				}
+				try {
+					return method.invoke(session, args);
+				} catch (InvocationTargetException e) {
+					throw e.getCause();
+				}
+			}
+		});
+		// keep the select prepared while the gets are issued
+		Cache<String, PreparedStatement> cache = MappingSession.getStatementCache();
+		MappingSession.setStatementCache(CacheBuilder.newBuilder().<String, PreparedStatement>build());
+		MappingSession coalescing = new MappingSession(keyspace, counting, true);
+		coalescing.setSingleFlight(true);
+
+		List<ListenableFuture<EntityWithIndexes>> futures = new ArrayList<ListenableFuture<EntityWithIndexes>>();
+		try {
+			assertEquals(obj, coalescing.get(EntityWithIndexes.class, uuid));
+			queries.set(0);
+			for (int i = 0; i < 10; i++) {
+				futures.add(coalescing.getAsync(EntityWithIndexes.class, uuid));
+			}
+			for (ListenableFuture<EntityWithIndexes> f: futures) {
+				f.get();
+			}
+		} finally {
+			MappingSession.setStatementCache(cache);
+		}
+		assertEquals(1, queries.get());
+
+		// different read options are not coalesced with the default ones
+		queries.set(0);
+		ListenableFuture<EntityWithIndexes> one = coalescing.getAsync(EntityWithIndexes.class, uuid);
+		ListenableFuture<EntityWithIndexes> withOne = coalescing.getAsync(EntityWithIndexes.class, uuid, new ReadOptions().setConsistencyLevel(ConsistencyLevel.ONE));
+		assertEquals(obj, one.get());
+		assertEquals(obj, withOne.get());
+		assertEquals(2, queries.get());
+
+		EntityWithIndexes first = futures.get(0).get();
+		assertEquals(obj, first);
+		for (ListenableFuture<EntityWithIndexes> f: futures) {
+			EntityWithIndexes loaded = f.get();
+			assertEquals(obj, loaded);
+			if (f != futures.get(0)) {
+				assertNotSame(first, loaded);
+			}
+		}
+		assertEquals(obj, coalescing.get(EntityWithIndexes.class, uuid));
+		assertNull(coalescing.get(EntityWithIndexes.class, UUID.randomUUID()));
+	}
 }
@@ -23,10 +23,22 @@ import com.datastax.driver.core.policies.LatencyAwarePolicy;
 import com.datastax.driver.core.policies.RoundRobinPolicy;
 import com.datastax.driver.core.querybuilder.QueryBuilder;
 import com.datastax.driver.core.utils.UUIDs;
+import com.datastax.driver.mapping.builder.MappingBuilder;
 import com.datastax.driver.mapping.entity.*;
 import com.datastax.driver.mapping.meta.EntityFieldMetaData;
 import com.datastax.driver.mapping.meta.EntityTypeMetadata;
+import com.datastax.driver.mapping.meta.PropertyRef;
+import com.datastax.driver.mapping.option.BatchOptions;
+import com.datastax.driver.mapping.option.BulkOptions;
+import com.datastax.driver.mapping.option.CounterOptions;
+import com.datastax.driver.mapping.option.MicroBatchOptions;
+import com.datastax.driver.mapping.option.Parallelism;
+import com.datastax.driver.mapping.option.ScanOptions;
+import com.datastax.driver.mapping.option.SliceOptions;
+import com.datastax.driver.mapping.option.WriteBehindOptions;
 import com.datastax.driver.mapping.option.WriteOptions;
+import com.datastax.driver.mapping.scan.MemoryScanCheckpoint;
+import com.datastax.driver.mapping.schemasync.SchemaSync;
 import com.datastax.driver.mapping.schemasync.SyncOptionTypes;
 import com.datastax.driver.mapping.schemasync.SyncOptions;
 import com.google.common.cache.Cache;
@@ -35,8 +47,10 @@ import com.google.common.cache.CacheBuilder;
 import org.junit.*;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static com.datastax.driver.core.querybuilder.QueryBuilder.eq;
 import static org.junit.Assert.*;
@@ -1136,4 +1150,694 @@ public class MappingSessionTest {
         assertEquals(true, e.getIsGood());
         assertEquals(Double.valueOf(100.896), Double.valueOf(e.getBalance()));
     }
+
+    @Test
+    public void parallelMappingKeepsOrderTest() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            Simple obj = new Simple();
+            obj.setId(UUID.randomUUID());
+            obj.setName("name" + i);
+            obj.setAge(i);
+            target.save(obj);
+        }
+        List<Row> rows = session.execute("SELECT * FROM " + keyspace + ".simple").all();
+        List<Simple> serial = target.getFromRows(Simple.class, rows);
+        List<Simple> parallel = target.getFromRows(Simple.class, rows, new Parallelism().setThreshold(2).setChunkSize(3));
+        assertEquals(50, parallel.size());
+        assertEquals(serial, parallel);
+    }
+
+    @Test
+    public void existsAndGetVersionTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        assertFalse(target.exists(EntityWithVersion.class, id));
+        assertNull(target.getVersion(EntityWithVersion.class, id));
+
+        EntityWithVersion obj = new EntityWithVersion();
+        obj.setId(id);
+        obj.setName("ver1");
+        target.save(obj);
+
+        assertTrue(target.exists(EntityWithVersion.class, id));
+        assertTrue(target.existsAsync(EntityWithVersion.class, id).get());
+        assertEquals(Long.valueOf(1), target.getVersion(EntityWithVersion.class, id));
+
+        target.save(obj);
+        assertEquals(Long.valueOf(2), target.getVersionAsync(EntityWithVersion.class, id).get());
+    }
+
+    @Test
+    public void scanWithCheckpointTest() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            Simple obj = new Simple();
+            obj.setId(UUID.randomUUID());
+            obj.setName("name" + i);
+            target.save(obj);
+        }
+        final Set<UUID> ids = Collections.synchronizedSet(new HashSet<UUID>());
+        MemoryScanCheckpoint checkpoint = new MemoryScanCheckpoint();
+        ScanOptions options = new ScanOptions().setParallelism(3).setSplitsPerRange(4).setFetchSize(5).setCheckpoint(checkpoint);
+
+        long scanned = target.scan(Simple.class, options, new Consumer<Simple>() {
+            public void accept(Simple s) {
+                ids.add(s.getId());
+            }
+        });
+        assertEquals(20, scanned);
+        assertEquals(20, ids.size());
+        assertFalse(checkpoint.getCompleted().isEmpty());
+
+        // all ranges completed, resumed scan has nothing to do
+        assertEquals(0, target.scan(Simple.class, options, new Consumer<Simple>() {
+            public void accept(Simple s) {
+                fail("range scanned twice");
+            }
+        }));
+    }
+
+    @Test
+    public void sliceTest() throws Exception {
+        SimpleKey partition = new SimpleKey();
+        partition.setName("slice");
+        partition.setRank(1);
+        partition.setT1(UUIDs.timeBased());
+        partition.setT2(UUIDs.timeBased());
+
+        long base = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            CompositeKey key = new CompositeKey();
+            key.setKey(partition);
+            key.setCreated(new Date(base + i));
+            key.setEmail("e" + i);
+            EntityWithCompositeKey obj = new EntityWithCompositeKey();
+            obj.setKey(key);
+            obj.setTimestamp(i);
+            target.save(obj);
+        }
+
+        List<EntityWithCompositeKey> all = target.getSlice(EntityWithCompositeKey.class, partition, new SliceOptions());
+        assertEquals(10, all.size());
+
+        SliceOptions lastThree = new SliceOptions().setFrom(new Date(base + 2)).setTo(new Date(base + 8)).setToInclusive(false).setOrder(SliceOptions.Order.DESC).setLimit(3);
+        List<EntityWithCompositeKey> slice = target.getSlice(EntityWithCompositeKey.class, partition, lastThree);
+        assertEquals(3, slice.size());
+        assertEquals(7, slice.get(0).getTimestamp());
+        assertEquals(5, slice.get(2).getTimestamp());
+
+        // multi-column bound (created, email) > (base+8, e8)
+        SliceOptions tail = new SliceOptions().setFrom(new Date(base + 8), "e8").setFromInclusive(false);
+        slice = target.getSliceAsync(EntityWithCompositeKey.class, partition, tail).get();
+        assertEquals(1, slice.size());
+        assertEquals(9, slice.get(0).getTimestamp());
+
+        // bounds of different length (created, email) >= (base+3, e3) AND (created) <= (base+5)
+        SliceOptions mixed = new SliceOptions().setFrom(new Date(base + 3), "e3").setTo(new Date(base + 5));
+        slice = target.getSlice(EntityWithCompositeKey.class, partition, mixed);
+        assertEquals(3, slice.size());
+        assertEquals(3, slice.get(0).getTimestamp());
+        assertEquals(5, slice.get(2).getTimestamp());
+    }
+
+    @Test
+    public void getStaticTest() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            ClusteringKey key = new ClusteringKey();
+            key.setUser("static_user");
+            key.setExpense_id(i);
+            EntityWithStaticField e = new EntityWithStaticField();
+            e.setKey(key);
+            e.setBalance(10 * i);
+            e.setPaid(true);
+            target.save(e);
+        }
+
+        EntityWithStaticField header = target.getStatic(EntityWithStaticField.class, "static_user");
+        assertEquals(30, header.getBalance());
+        assertEquals("static_user", header.getKey().getUser());
+        assertNull(header.getPaid());
+        assertNull(target.getStatic(EntityWithStaticField.class, "no_such_user"));
+
+        Map<Object, EntityWithStaticField> headers = target.getStatics(EntityWithStaticField.class, Arrays.asList("static_user", "no_such_user"), null);
+        assertEquals(1, headers.size());
+        assertEquals(30, headers.get("static_user").getBalance());
+    }
+
+    @Test
+    public void saveAllAndDeleteAllTest() throws Exception {
+        List<Simple> entities = new ArrayList<Simple>();
+        for (int i = 0; i < 50; i++) {
+            Simple obj = new Simple();
+            obj.setId(UUID.randomUUID());
+            obj.setName("bulk" + i);
+            entities.add(obj);
+        }
+
+        BulkResult<Simple> saved = target.saveAll(entities, new BulkOptions().setMaxInFlight(4));
+        assertTrue(saved.isSuccessful());
+        assertEquals(50, saved.getSucceeded());
+        for (Simple obj : entities) {
+            assertNotNull(target.get(Simple.class, obj.getId()));
+        }
+
+        BulkResult<Simple> deleted = target.deleteAll(entities, null);
+        assertEquals(50, deleted.getSucceeded());
+        for (Simple obj : entities) {
+            assertNull(target.get(Simple.class, obj.getId()));
+        }
+    }
+
+    @Test
+    public void unloggedBatchSplitByPartitionTest() throws Exception {
+        MappingSession.BatchExecutor batch = target.withBatch();
+        List<Simple> entities = new ArrayList<Simple>();
+        for (int i = 0; i < 10; i++) {
+            Simple obj = new Simple();
+            obj.setId(UUID.randomUUID());
+            obj.setName("batch" + i);
+            entities.add(obj);
+            batch.save(obj);
+        }
+        batch.withOptions(new BatchOptions().setBatchType(BatchStatement.Type.UNLOGGED).setMaxStatements(3));
+        batch.executeAsync().getUninterruptibly();
+
+        for (Simple obj : entities) {
+            assertNotNull(target.get(Simple.class, obj.getId()));
+        }
+    }
+
+    @Test
+    public void writeBehindCoalescesSavesTest() throws Exception {
+        MappingSession session = new MappingSession(keyspace, target.getSession());
+        session.enableWriteBehind(Simple.class, new WriteBehindOptions().setFlushIntervalMillis(60000));
+
+        UUID id = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            Simple obj = new Simple();
+            obj.setId(id);
+            obj.setName("name" + i);
+            session.save(obj);
+        }
+        assertNull(session.get(Simple.class, id));
+
+        WriteBehindMetrics metrics = session.getWriteBehindMetrics(Simple.class);
+        session.close();
+        assertEquals(5, metrics.getSaves());
+        assertEquals(4, metrics.getCoalesced());
+        assertEquals(1, metrics.getWritten());
+        Simple loaded = target.get(Simple.class, id);
+        assertEquals("name4", loaded.getName());
+    }
+
+    @Test
+    public void microBatchingSaveAsyncTest() throws Exception {
+        MappingSession session = new MappingSession(keyspace, target.getSession());
+        session.setMicroBatching(new MicroBatchOptions().setLingerMicros(5000).setMaxBatchSize(10));
+
+        SimpleKey partition = new SimpleKey();
+        partition.setName("micro");
+        partition.setRank(1);
+        partition.setT1(UUIDs.timeBased());
+        partition.setT2(UUIDs.timeBased());
+
+        List<ResultSetFuture> futures = new ArrayList<ResultSetFuture>();
+        long base = System.currentTimeMillis();
+        for (int i = 0; i < 25; i++) {
+            CompositeKey key = new CompositeKey();
+            key.setKey(partition);
+            key.setCreated(new Date(base + i));
+            key.setEmail("e" + i);
+            EntityWithCompositeKey obj = new EntityWithCompositeKey();
+            obj.setKey(key);
+            obj.setTimestamp(i);
+            futures.add(session.saveAsync(obj));
+        }
+        for (ResultSetFuture f : futures) {
+            f.getUninterruptibly();
+        }
+        session.close();
+
+        assertEquals(25, target.getSlice(EntityWithCompositeKey.class, partition, new SliceOptions()).size());
+    }
+
+    @Test
+    public void incrementCounterTest() throws Exception {
+        target.increment(EntityWithCounter.class, "incSource", "counterValue", 3);
+        target.incrementAsync(EntityWithCounter.class, "incSource", "counterValue", 2, null).getUninterruptibly();
+        assertEquals(5, target.get(EntityWithCounter.class, "incSource").getCounterValue());
+
+        MappingSession session = new MappingSession(keyspace, target.getSession());
+        session.enableCounterAccumulator(EntityWithCounter.class, new CounterOptions().setFlushIntervalMillis(60000));
+        for (int i = 0; i < 100; i++) {
+            session.increment(EntityWithCounter.class, "accSource", "counterValue", 1);
+        }
+        session.increment(EntityWithCounter.class, "accSource", "counterValue", -10);
+        assertNull(target.get(EntityWithCounter.class, "accSource"));
+        session.close();
+        assertEquals(90, target.get(EntityWithCounter.class, "accSource").getCounterValue());
+    }
+
+    @Test
+    public void saveWithResultTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        EntityWithVersion obj = new EntityWithVersion();
+        obj.setId(id);
+        obj.setName("first");
+
+        SaveResult<EntityWithVersion> result = target.saveWithResult(obj).get();
+        assertTrue(result.isApplied());
+        assertEquals(1, obj.getVersion());
+
+        EntityWithVersion stale = target.get(EntityWithVersion.class, id);
+        obj.setName("second");
+        assertTrue(target.saveWithResult(obj).get().isApplied());
+        assertEquals(2, obj.getVersion());
+
+        stale.setName("stale");
+        result = target.saveWithResult(stale).get();
+        assertFalse(result.isApplied());
+        assertEquals(1, stale.getVersion());
+        assertEquals(2, result.getCurrent().getVersion());
+    }
+
+    @Test
+    public void saveOrMergeTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        EntityWithVersion obj = new EntityWithVersion();
+        obj.setId(id);
+        obj.setName("a");
+        target.save(obj);
+
+        EntityWithVersion stale = target.get(EntityWithVersion.class, id);
+        obj.setName("b");
+        target.save(obj);
+
+        stale.setName("c");
+        EntityWithVersion saved = target.saveOrMerge(stale, new MergeFunction<EntityWithVersion>() {
+            public EntityWithVersion merge(EntityWithVersion mine, EntityWithVersion current) {
+                current.setName(current.getName() + mine.getName());
+                return current;
+            }
+        });
+        assertNotNull(saved);
+        assertEquals(3, saved.getVersion());
+        assertEquals("bc", target.get(EntityWithVersion.class, id).getName());
+    }
+
+    @Test
+    public void entityWithTimestampVersionTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        EntityWithTimestampVersion obj = new EntityWithTimestampVersion();
+        obj.setId(id);
+        obj.setName("ver1");
+
+        EntityWithTimestampVersion saved = target.save(obj);
+        assertEquals(1, saved.getVersion());
+
+        EntityWithTimestampVersion stale = target.get(EntityWithTimestampVersion.class, id);
+        assertEquals(1, stale.getVersion());
+
+        saved = target.save(saved);
+        saved.setName("ver3");
+        saved = target.save(saved);
+        assertEquals(3, saved.getVersion());
+
+        // stale copy is written with timestamp 2 and loses at the storage layer
+        stale.setName("stale");
+        assertNotNull(target.save(stale));
+        EntityWithTimestampVersion loaded = target.get(EntityWithTimestampVersion.class, id);
+        assertEquals("ver3", loaded.getName());
+        assertEquals(3, loaded.getVersion());
+    }
+
+    @Test
+    public void deleteRangeTest() throws Exception {
+        SimpleKey partition = new SimpleKey();
+        partition.setName("deleteRange");
+        partition.setRank(1);
+        partition.setT1(UUIDs.timeBased());
+        partition.setT2(UUIDs.timeBased());
+
+        long base = System.currentTimeMillis();
+        for (int i = 0; i < 10; i++) {
+            CompositeKey key = new CompositeKey();
+            key.setKey(partition);
+            key.setCreated(new Date(base + i));
+            key.setEmail("e" + i);
+            EntityWithCompositeKey obj = new EntityWithCompositeKey();
+            obj.setKey(key);
+            obj.setTimestamp(i);
+            target.save(obj);
+        }
+
+        target.deleteRange(EntityWithCompositeKey.class, partition, new Object[] { new Date(base + 2) }, new Object[] { new Date(base + 4) });
+        List<EntityWithCompositeKey> rows = target.getSlice(EntityWithCompositeKey.class, partition, new SliceOptions());
+        assertEquals(7, rows.size());
+
+        // open upper bound from multi-column prefix (created, email) >= (base+8, e8)
+        target.deleteRangeAsync(EntityWithCompositeKey.class, partition, new Object[] { new Date(base + 8), "e8" }, null, null).get();
+        rows = target.getSlice(EntityWithCompositeKey.class, partition, new SliceOptions());
+        assertEquals(5, rows.size());
+
+        // bounds of different length (created, email) >= (base+5, e5) AND (created) <= (base+6)
+        target.deleteRange(EntityWithCompositeKey.class, partition, new Object[] { new Date(base + 5), "e5" }, new Object[] { new Date(base + 6) }, new WriteOptions());
+        rows = target.getSlice(EntityWithCompositeKey.class, partition, new SliceOptions());
+        assertEquals(3, rows.size());
+
+        target.deletePartition(EntityWithCompositeKey.class, partition, null);
+        rows = target.getSlice(EntityWithCompositeKey.class, partition, new SliceOptions());
+        assertTrue(rows.isEmpty());
+    }
+
+    @Test
+    public void backgroundSyncTest() throws Exception {
+        MappingSession m = new MappingSession(keyspace, session, null, new Class<?>[] { EntityWithIndexes.class, Simple.class });
+
+        // chained onto the sync of the entity, the caller is not blocked by DDL
+        EntityWithIndexes obj = new EntityWithIndexes();
+        obj.setUuid(UUID.randomUUID());
+        obj.setCount(5);
+        ResultSetFuture saved = m.saveAsync(obj);
+
+        m.ready().get(30, TimeUnit.SECONDS);
+        assertTrue(EntityTypeParser.getEntityMetadata(EntityWithIndexes.class).isSynced(keyspace));
+        assertTrue(EntityTypeParser.getEntityMetadata(Simple.class).isSynced(keyspace));
+
+        saved.get(30, TimeUnit.SECONDS);
+        EntityWithIndexes loaded = m.getAsync(EntityWithIndexes.class, obj.getUuid()).get();
+        assertEquals(5, loaded.getCount());
+    }
+
+    @Test
+    public void syncAfterDropTest() throws Exception {
+        Simple obj = new Simple();
+        obj.setName("before drop");
+        target.save(obj);
+
+        // cached sync decision of the session is invalidated by the drop
+        SchemaSync.drop(keyspace, session, Simple.class);
+        obj = new Simple();
+        obj.setName("after drop");
+        Simple saved = target.save(obj);
+        assertEquals("after drop", target.get(Simple.class, saved.getId()).getName());
+    }
+
+    @Test
+    public void propertyRefTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        EntityWithCollections obj = new EntityWithCollections();
+        obj.setId(id);
+        obj.setTrades(new ArrayList<Integer>(Arrays.asList(1, 2)));
+        target.save(obj);
+
+        PropertyRef<EntityWithCollections> trades = target.property(EntityWithCollections.class, "TRADES");
+        assertEquals("trades", trades.getName());
+        target.append(id, trades, 3, null);
+        target.prependAsync(id, trades, 0, null).get();
+        target.replaceAt(id, trades, 10, 1, null);
+
+        EntityWithCollections loaded = target.get(EntityWithCollections.class, id);
+        assertEquals(Arrays.asList(0, 10, 2, 3), loaded.getTrades());
+
+        target.deleteValue(id, trades);
+        loaded = target.get(EntityWithCollections.class, id);
+        assertTrue(loaded.getTrades() == null || loaded.getTrades().isEmpty());
+
+        try {
+            target.property(EntityWithCollections.class, "noSuchProperty");
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void zeroCopyTest() throws Exception {
+        byte[] bytes = new byte[] {1, 2, 3, 4, 5};
+        UUID id = UUID.randomUUID();
+        EntityWithZeroCopy obj = new EntityWithZeroCopy();
+        obj.setId(id);
+        obj.setPayload(ByteBuffer.wrap(bytes));
+        obj.setCopied(ByteBuffer.wrap(bytes));
+        target.save(obj);
+
+        EntityWithZeroCopy loaded = target.get(EntityWithZeroCopy.class, id);
+        ByteBuffer payload = loaded.getPayload();
+        assertNotNull(payload);
+        assertTrue(payload.isReadOnly());
+        assertEquals(ByteBuffer.wrap(bytes), payload);
+        byte[] read = new byte[payload.remaining()];
+        payload.duplicate().get(read);
+        assertArrayEquals(bytes, read);
+
+        // properties without @ZeroCopy are read as before
+        assertEquals(ByteBuffer.wrap(bytes), loaded.getCopied());
+    }
+
+    @Test
+    public void getByQueryColumnSubsetTest() throws Exception {
+        Simple obj = new Simple();
+        obj.setId(UUID.randomUUID());
+        obj.setName("subset");
+        obj.setTimestamp(new Date());
+        obj.setAge(55);
+        target.save(obj);
+
+        EntityTypeMetadata emeta = EntityTypeParser.getEntityMetadata(Simple.class);
+        String idCol = emeta.getFieldMetadata("id").getColumnName();
+        String nameCol = emeta.getFieldMetadata("name").getColumnName();
+        Statement query = QueryBuilder.select(idCol, nameCol).from(keyspace, emeta.getTableName()).where(eq(idCol, obj.getId()));
+
+        // the list path and the single row path populate only the selected fields
+        List<Simple> items = target.getByQuery(Simple.class, query);
+        assertEquals(1, items.size());
+        ResultSet rs = session.execute(query);
+        Simple fromRow = target.getFromRow(Simple.class, rs.one());
+        for (Simple loaded : Arrays.asList(items.get(0), fromRow)) {
+            assertEquals(obj.getId(), loaded.getId());
+            assertEquals("subset", loaded.getName());
+            assertNull(loaded.getTimestamp());
+            assertEquals(0, loaded.getAge());
+        }
+    }
+
+    @Test
+    public void batchKeepsRowStatementsTogetherTest() throws Exception {
+        Simple obj = new Simple();
+        obj.setId(UUID.randomUUID());
+        obj.setName("batch");
+        target.save(obj);
+
+        // with one statement per batch save and delete of the row still go together
+        MappingSession.BatchExecutor batch = target.withBatch().save(obj).delete(obj);
+        batch.withOptions(new BatchOptions().setBatchType(BatchStatement.Type.UNLOGGED).setMaxStatements(1));
+        batch.execute();
+        assertNull(target.get(Simple.class, obj.getId()));
+
+        // LOGGED batch is not split
+        batch = target.withBatch().save(obj).save(obj);
+        batch.withOptions(new BatchOptions().setMaxStatements(1));
+        try {
+            batch.execute();
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        assertNull(target.get(Simple.class, obj.getId()));
+    }
+
+    @Test
+    public void writeBehindDirectWritesTest() throws Exception {
+        MappingSession session = new MappingSession(keyspace, target.getSession());
+        session.enableWriteBehind(Simple.class, new WriteBehindOptions().setFlushIntervalMillis(60000));
+
+        // direct save drops the older buffered state
+        Simple obj = new Simple();
+        obj.setId(UUID.randomUUID());
+        obj.setName("buffered");
+        session.save(obj);
+        Simple newer = new Simple();
+        newer.setId(obj.getId());
+        newer.setName("direct");
+        session.saveAsync(newer).getUninterruptibly();
+
+        // property update writes the buffered state first
+        Simple other = new Simple();
+        other.setId(UUID.randomUUID());
+        other.setName("buffered");
+        other.setAge(10);
+        session.save(other);
+        session.updateValue(other.getId(), Simple.class, "age", 20);
+
+        // bulk delete drops the buffered state
+        Simple deleted = new Simple();
+        deleted.setId(UUID.randomUUID());
+        deleted.setName("deleted");
+        session.save(deleted);
+        session.deleteAll(Arrays.asList(deleted), null);
+
+        session.close();
+        assertEquals("direct", target.get(Simple.class, obj.getId()).getName());
+        Simple loaded = target.get(Simple.class, other.getId());
+        assertEquals("buffered", loaded.getName());
+        assertEquals(20, loaded.getAge());
+        assertNull(target.get(Simple.class, deleted.getId()));
+    }
+
+    @Test
+    public void microBatchingSameRowTest() throws Exception {
+        MappingSession session = new MappingSession(keyspace, target.getSession());
+        session.setMicroBatching(new MicroBatchOptions().setLingerMicros(500000).setMaxBatchSize(10));
+
+        Simple first = new Simple();
+        first.setId(UUID.randomUUID());
+        first.setName("first");
+        Simple second = new Simple();
+        second.setId(first.getId());
+        second.setName("second");
+        ResultSetFuture f1 = session.saveAsync(first);
+        ResultSetFuture f2 = session.saveAsync(second);
+        f1.getUninterruptibly();
+        f2.getUninterruptibly();
+        assertEquals("second", target.get(Simple.class, first.getId()).getName());
+        session.close();
+
+        // writes added after close are sent right away
+        MicroBatcher batcher = new MicroBatcher(target.getSession(), new MicroBatchOptions().setLingerMicros(500000));
+        batcher.close();
+        Simple late = new Simple();
+        late.setId(UUID.randomUUID());
+        late.setName("late");
+        batcher.add(late.getId(), MappingBuilder.prepareBoundSave(late, null, keyspace, target.getSession())).getUninterruptibly();
+        assertEquals("late", target.get(Simple.class, late.getId()).getName());
+    }
+
+    @Test
+    public void saveOrMergeVersionOnlyTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        EntityWithVersion obj = new EntityWithVersion();
+        obj.setId(id);
+        obj.setName("a");
+        target.save(obj);
+
+        EntityWithVersion stale = target.get(EntityWithVersion.class, id);
+        obj.setName("b");
+        target.save(obj);
+
+        stale.setName("c");
+        final List<EntityWithVersion> seen = new ArrayList<EntityWithVersion>();
+        EntityWithVersion saved = target.saveOrMerge(stale, new MergeFunction.VersionOnly<EntityWithVersion>() {
+            public EntityWithVersion merge(EntityWithVersion mine, EntityWithVersion current) {
+                seen.add(current);
+                return mine;
+            }
+        });
+        assertNotNull(saved);
+        assertEquals(1, seen.size());
+        // merged from the LWT response: key and version only
+        assertEquals(id, seen.get(0).getId());
+        assertEquals(2, seen.get(0).getVersion());
+        assertNull(seen.get(0).getName());
+        assertEquals(3, saved.getVersion());
+        assertEquals("c", target.get(EntityWithVersion.class, id).getName());
+    }
+
+    @Test
+    public void entityWithTimestampVersionDeleteTest() throws Exception {
+        UUID id = UUID.randomUUID();
+        EntityWithTimestampVersion obj = new EntityWithTimestampVersion();
+        obj.setId(id);
+        obj.setName("ver1");
+
+        EntityWithTimestampVersion saved = target.save(obj);
+        assertEquals(1, saved.getVersion());
+
+        // tombstone is written with the next version
+        target.delete(saved);
+        assertEquals(2, saved.getVersion());
+        assertNull(target.get(EntityWithTimestampVersion.class, id));
+
+        // save after delete is not shadowed by the tombstone
+        saved.setName("ver3");
+        saved = target.save(saved);
+        assertEquals(3, saved.getVersion());
+        EntityWithTimestampVersion loaded = target.get(EntityWithTimestampVersion.class, id);
+        assertNotNull(loaded);
+        assertEquals("ver3", loaded.getName());
+
+        // writes without the entity need a timestamp on the version scale
+        try {
+            target.delete(EntityWithTimestampVersion.class, id);
+            fail("delete by id must be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            target.updateValue(id, EntityWithTimestampVersion.class, "name", "unversioned");
+            fail("update without timestamp must be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        target.updateValue(id, EntityWithTimestampVersion.class, "name", "ver4", new WriteOptions().setTimestamp(4));
+        assertEquals("ver4", target.get(EntityWithTimestampVersion.class, id).getName());
+        assertEquals(3, target.get(EntityWithTimestampVersion.class, id).getVersion());
+        try {
+            target.deleteValue(id, EntityWithTimestampVersion.class, "name");
+            fail("property delete without timestamp must be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        target.deleteValue(id, EntityWithTimestampVersion.class, "name", new WriteOptions().setTimestamp(5));
+        assertNull(target.get(EntityWithTimestampVersion.class, id).getName());
+    }
+
+    @Test
+    public void partitionBatcherSplitTest() throws Exception {
+        Statement s1 = new SimpleStatement("s1");
+        Statement s2 = new SimpleStatement("s2");
+        Statement s3 = new SimpleStatement("s3");
+        Statement s4 = new SimpleStatement("s4");
+        Statement s5 = new SimpleStatement("s5");
+        List<PartitionBatcher.Entry> entries = new ArrayList<PartitionBatcher.Entry>();
+        entries.add(new PartitionBatcher.Entry(s1, "p1", "r1", 10));
+        entries.add(new PartitionBatcher.Entry(s2, "p1", "r2", 10));
+        entries.add(new PartitionBatcher.Entry(s5, "p2", "r5", 10));
+        entries.add(new PartitionBatcher.Entry(s3, "p1", "r1", 10));
+        entries.add(new PartitionBatcher.Entry(s4, "p1", "r3", 10));
+
+        // statements of row r1 stay in one batch, batches of p1 in order of the rows
+        List<List<Statement>> partitions = PartitionBatcher.splitByPartition(entries, BatchStatement.Type.UNLOGGED, 2, -1);
+        assertEquals(2, partitions.size());
+        List<Statement> p1 = partitions.get(0);
+        assertEquals(2, p1.size());
+        assertEquals(Arrays.asList(s1, s3), new ArrayList<Statement>(((BatchStatement) p1.get(0)).getStatements()));
+        assertEquals(Arrays.asList(s2, s4), new ArrayList<Statement>(((BatchStatement) p1.get(1)).getStatements()));
+        assertEquals(Collections.singletonList(s5), partitions.get(1));
+
+        // a row larger than the limit is not split either
+        entries.add(new PartitionBatcher.Entry(new SimpleStatement("s6"), "p1", "r1", 10));
+        p1 = PartitionBatcher.splitByPartition(entries, BatchStatement.Type.UNLOGGED, 2, -1).get(0);
+        assertEquals(3, ((BatchStatement) p1.get(0)).getStatements().size());
+
+        // flattened split keeps the order
+        List<Statement> flat = PartitionBatcher.split(entries, BatchStatement.Type.UNLOGGED, 2, -1);
+        assertEquals(3, flat.size());
+        assertSame(s5, flat.get(2));
+
+        // LOGGED batch within limits is one batch, over limits it is refused
+        List<Statement> logged = PartitionBatcher.split(entries, BatchStatement.Type.LOGGED, 10, -1);
+        assertEquals(1, logged.size());
+        assertEquals(6, ((BatchStatement) logged.get(0)).getStatements().size());
+        try {
+            PartitionBatcher.split(entries, BatchStatement.Type.LOGGED, 5, -1);
+            fail("LOGGED batch over the limit must not be split");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            PartitionBatcher.split(entries, BatchStatement.Type.LOGGED, -1, 50);
+            fail("LOGGED batch over the size limit must not be split");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
 }
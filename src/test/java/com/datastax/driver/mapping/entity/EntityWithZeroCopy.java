@@ -0,0 +1,64 @@
+/*
+ *   Copyright (C) 2014 Eugene Valchkou.
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ */
+package com.datastax.driver.mapping.entity;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import com.datastax.driver.mapping.annotation.ZeroCopy;
+
+/**
+ * @author user
+ *
+ */
+@Table(name="EntityWithZeroCopy")
+public class EntityWithZeroCopy {
+	
+	@Id
+	private UUID id;
+	
+	@ZeroCopy
+	private ByteBuffer payload;
+	
+	private ByteBuffer copied;
+	
+	public UUID getId() {
+		return id;
+	}
+
+	public ByteBuffer getPayload() {
+		return payload;
+	}
+
+	public ByteBuffer getCopied() {
+		return copied;
+	}
+
+	public void setId(UUID id) {
+		this.id = id;
+	}
+
+	public void setPayload(ByteBuffer payload) {
+		this.payload = payload;
+	}
+
+	public void setCopied(ByteBuffer copied) {
+		this.copied = copied;
+	}
+}
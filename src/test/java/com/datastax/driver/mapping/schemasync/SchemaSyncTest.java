@@ -15,6 +15,11 @@
  */
 package com.datastax.driver.mapping.schemasync;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.After;
@@ -26,6 +31,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 import com.datastax.driver.core.Cluster;
 import com.datastax.driver.core.ColumnMetadata;
@@ -299,4 +305,54 @@ public class SchemaSyncTest {
 		assertNotNull(columnMetadata);	
 	}
 	
+	@Test
+	public void testSyncMany() {
+		Class<?>[] classes = new Class<?>[] {EntityWithIndexes.class, EntityWithCompositeKey.class, EntityWithTimeUUID.class, EntityWithIndexesV2.class};
+		SchemaSync.drop(keyspace, session, classes);
+		SchemaSync.sync(keyspace, session, classes, SyncOptions.withOptions().setParallelism(2));
+		
+		for (Class<?> clazz: classes) {
+			EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+			assertTrue(entityMetadata.isSynced(keyspace));
+			assertNotNull(cluster.getMetadata().getKeyspace(keyspace).getTable(entityMetadata.getTableName()));
+		}
+		
+		// V2 shares the table and is applied after V1
+		TableMetadata tableMetadata = cluster.getMetadata().getKeyspace(keyspace).getTable("test_entity_index");
+		assertNotNull(tableMetadata.getColumn("counter2"));
+		assertNull(tableMetadata.getColumn("counter"));
+	}
+
+	@Test
+	public void testConcurrentSync() throws Exception {
+		final Class<?>[] classes = new Class<?>[] {EntityWithIndexes.class, EntityWithCompositeKey.class};
+		SchemaSync.drop(keyspace, session, classes);
+
+		// threads syncing the same table run its DDL once, other tables are not blocked
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<?>> futures = new ArrayList<Future<?>>();
+			for (int i = 0; i < 16; i++) {
+				final Class<?> clazz = classes[i % classes.length];
+				futures.add(executor.submit(new Runnable() {
+					public void run() {
+						SchemaSync.sync(keyspace, session, clazz);
+					}
+				}));
+			}
+			for (Future<?> f: futures) {
+				f.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		for (Class<?> clazz: classes) {
+			EntityTypeMetadata entityMetadata = EntityTypeParser.getEntityMetadata(clazz);
+			assertTrue(entityMetadata.isSynced(keyspace));
+			assertNotNull(cluster.getMetadata().getKeyspace(keyspace).getTable(entityMetadata.getTableName()));
+			assertEquals("", SchemaSync.getScript(keyspace, session, clazz));
+		}
+	}
+	
 }